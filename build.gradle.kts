@@ -41,10 +41,32 @@ repositories {
     }
 }
 
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get(), configurations.compileOnly.get())
+
 dependencies {
     implementation("io.papermc.paper:paper-api:${project.properties["craftbukkit.version"]}")
     implementation("com.denizenscript:denizen:${project.properties["denizen.version"]}")
     compileOnly("io.github.toxicity188:bettermodel:${project.properties["bettermodel.version"]}")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:${project.properties["jmh.version"]}")
+    "jmhImplementation"("org.mockito:mockito-core:${project.properties["mockito.version"]}")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:${project.properties["jmh.version"]}")
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks. Pass -Pjmh.includes=<regex> to select benchmarks."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    args(project.findProperty("jmh.includes") as? String ?: ".*", "-rf", "text", "-rff", layout.buildDirectory.file("jmh/results.txt").get().asFile.path)
+    doFirst {
+        layout.buildDirectory.dir("jmh").get().asFile.mkdirs()
+    }
 }
 
 fun buildNumber(): String = project.findProperty("BUILD_NUMBER") as? String ?: "UNKNOWN"
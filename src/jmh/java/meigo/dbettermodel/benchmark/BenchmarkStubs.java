@@ -0,0 +1,200 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.benchmark;
+
+import kr.toxicity.model.api.bone.RenderedBone;
+import kr.toxicity.model.api.nms.ModelDisplay;
+import kr.toxicity.model.api.tracker.EntityTracker;
+import kr.toxicity.model.api.tracker.EntityTrackerRegistry;
+import kr.toxicity.model.api.util.TransformedItemStack;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.entity.Entity;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Stubbed Bukkit and BetterModel objects, so the hot paths can be measured without a running server.
+ * Bukkit's server and entities and BetterModel's displays are interfaces and are stubbed by hand.
+ * Trackers, registries and bones are only built by BetterModel from a loaded model, so they remain mocks,
+ * but stub-only ones whose calls return the plain objects prepared here, without deep stubs or invocation recording.
+ */
+final class BenchmarkStubs {
+
+    private BenchmarkStubs() {}
+
+    static synchronized Server installServer() {
+        if (Bukkit.getServer() != null) {
+            return Bukkit.getServer();
+        }
+        Server server = stub(Server.class, new ServerStub());
+        Bukkit.setServer(server);
+        return server;
+    }
+
+    static Entity entity(Server server, UUID uuid) {
+        Entity entity = stub(Entity.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getUniqueId" -> uuid;
+            case "isValid" -> true;
+            default -> defaultValue(proxy, method, args);
+        });
+        ((ServerStub) Proxy.getInvocationHandler(server)).entities.put(uuid, entity);
+        return entity;
+    }
+
+    static EntityTrackerRegistry registry(UUID uuid) {
+        EntityTrackerRegistry registry = mock(EntityTrackerRegistry.class, withSettings().stubOnly());
+        when(registry.uuid()).thenReturn(uuid);
+        return registry;
+    }
+
+    static EntityTracker tracker(EntityTrackerRegistry registry, String modelName, int boneCount) {
+        return tracker(registry, modelName, bones(boneCount));
+    }
+
+    /**
+     * Builds a tracker over existing bones. Bones hold no per-tracker state, so trackers of the same model may share them.
+     */
+    static EntityTracker tracker(EntityTrackerRegistry registry, String modelName, List<RenderedBone> bones) {
+        EntityTracker tracker = mock(EntityTracker.class, withSettings().stubOnly());
+        when(tracker.registry()).thenReturn(registry);
+        when(tracker.name()).thenReturn(modelName);
+        for (int i = 0; i < bones.size(); i++) {
+            when(tracker.bone(boneName(i))).thenReturn(bones.get(i));
+        }
+        doReturn(bones).when(tracker).bones();
+        when(registry.tracker(modelName)).thenReturn(tracker);
+        return tracker;
+    }
+
+    static List<RenderedBone> bones(int boneCount) {
+        List<RenderedBone> bones = new ArrayList<>(boneCount);
+        for (int i = 0; i < boneCount; i++) {
+            bones.add(bone(boneName(i)));
+        }
+        return List.copyOf(bones);
+    }
+
+    static RenderedBone bone(String name) {
+        // The name and group types are only reached through the bone, so they are mocked by return type.
+        Object boneName = returnTypeMock("name");
+        when(call(boneName, "name")).thenReturn(name);
+        TransformedItemStack itemStack = mock(TransformedItemStack.class, withSettings().stubOnly());
+        when(itemStack.copy()).thenReturn(itemStack);
+        Object group = returnTypeMock("getGroup");
+        when(call(group, "getItemStack")).thenReturn(itemStack);
+
+        RenderedBone bone = mock(RenderedBone.class, withSettings().stubOnly());
+        doReturn(boneName).when(bone).name();
+        doReturn(group).when(bone).getGroup();
+        when(bone.getDisplay()).thenReturn(display());
+        when(bone.applyAtDisplay(any(), any())).thenReturn(true);
+        when(bone.tint(any(), anyInt())).thenReturn(true);
+        return bone;
+    }
+
+    static ModelDisplay display() {
+        return stub(ModelDisplay.class, BenchmarkStubs::defaultValue);
+    }
+
+    static String boneName(int index) {
+        return "bone_" + index;
+    }
+
+    private static Object returnTypeMock(String boneMethod) {
+        try {
+            return mock(RenderedBone.class.getMethod(boneMethod).getReturnType(), withSettings().stubOnly());
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object call(Object target, String method) {
+        try {
+            return target.getClass().getMethod(method).invoke(target);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T> T stub(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(BenchmarkStubs.class.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    /**
+     * Answers the Object methods by identity, and everything else with false, zero or null.
+     */
+    private static Object defaultValue(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals" -> {
+                return proxy == args[0];
+            }
+            case "hashCode" -> {
+                return System.identityHashCode(proxy);
+            }
+            case "toString" -> {
+                return method.getDeclaringClass().getSimpleName() + "Stub";
+            }
+        }
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        return null;
+    }
+
+    private static final class ServerStub implements InvocationHandler {
+        private final Map<UUID, Entity> entities = new ConcurrentHashMap<>();
+        private final Logger logger = Logger.getLogger("BenchmarkServer");
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            return switch (method.getName()) {
+                case "isPrimaryThread" -> true;
+                case "getLogger" -> logger;
+                case "getEntity" -> args[0] instanceof UUID uuid ? entities.get(uuid) : null;
+                case "getName", "getVersion", "getBukkitVersion" -> "benchmark";
+                default -> defaultValue(proxy, method, args);
+            };
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.benchmark;
+
+import kr.toxicity.model.api.tracker.EntityTracker;
+import meigo.dbettermodel.denizen.objects.BMBoneTag;
+import meigo.dbettermodel.denizen.objects.BMModelTag;
+import org.bukkit.Server;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+EnableDynamicAgentLoading")
+public class BoneTagBenchmark {
+
+    private static final String MODEL = "benchmark_model";
+
+    @Param({"60"})
+    public int bonesPerModel;
+
+    private EntityTracker tracker;
+    private BMBoneTag boneTag;
+    private String boneIdentity;
+
+    @Setup
+    public void setup() {
+        Server server = BenchmarkStubs.installServer();
+        UUID uuid = UUID.randomUUID();
+        BenchmarkStubs.entity(server, uuid);
+        tracker = BenchmarkStubs.tracker(BenchmarkStubs.registry(uuid), MODEL, bonesPerModel);
+        boneTag = new BMBoneTag(uuid, MODEL, BenchmarkStubs.boneName(0));
+        boneIdentity = boneTag.identify();
+    }
+
+    @Benchmark
+    public String identify() {
+        return boneTag.identify();
+    }
+
+    @Benchmark
+    public BMBoneTag valueOf() {
+        return BMBoneTag.valueOf(boneIdentity, null);
+    }
+
+    @Benchmark
+    public String roundTrip() {
+        return BMBoneTag.valueOf(boneTag.identify(), null).identify();
+    }
+
+    @Benchmark
+    public Object bonesMap() {
+        return BMModelTag.getBonesMap(tracker);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.benchmark;
+
+import kr.toxicity.model.api.animation.AnimationModifier;
+import kr.toxicity.model.api.bone.RenderedBone;
+import kr.toxicity.model.api.tracker.EntityTracker;
+import meigo.dbettermodel.services.ModelBackend;
+import meigo.dbettermodel.services.ModelService;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * A {@link ModelBackend} that keeps trackers in plain maps instead of BetterModel's registries.
+ * Trackers are built by the given factory, so load and soak tests can simulate any number of them.
+ * By default every tracker is a {@link BenchmarkStubs} tracker, and trackers of the same model share one set of bones,
+ * so simulating thousands of trackers does not create thousands of stubbed bones.
+ */
+public class InMemoryModelBackend implements ModelBackend {
+
+    private final Map<UUID, Map<String, EntityTracker>> trackers = new ConcurrentHashMap<>();
+    private final Set<String> renderers = ConcurrentHashMap.newKeySet();
+    private final Set<String> limbs = ConcurrentHashMap.newKeySet();
+    private final BiFunction<UUID, String, EntityTracker> trackerFactory;
+
+    public InMemoryModelBackend(BiFunction<UUID, String, EntityTracker> trackerFactory) {
+        this.trackerFactory = trackerFactory;
+    }
+
+    public InMemoryModelBackend(int bonesPerModel) {
+        Map<String, List<RenderedBone>> modelBones = new ConcurrentHashMap<>();
+        this.trackerFactory = (uuid, model) -> BenchmarkStubs.tracker(BenchmarkStubs.registry(uuid), model,
+                modelBones.computeIfAbsent(model, k -> BenchmarkStubs.bones(bonesPerModel)));
+    }
+
+    public void registerRenderer(String modelName) {
+        renderers.add(modelName);
+    }
+
+    public void registerLimb(String modelName) {
+        limbs.add(modelName);
+    }
+
+    public EntityTracker spawn(UUID entityUUID, String modelName) {
+        EntityTracker tracker = trackerFactory.apply(entityUUID, modelName);
+        EntityTracker previous = trackers.computeIfAbsent(entityUUID, k -> new ConcurrentHashMap<>()).put(modelName, tracker);
+        if (previous != null) {
+            ModelService.getInstance().evictTracker(previous);
+        }
+        return tracker;
+    }
+
+    public int trackerCount() {
+        int count = 0;
+        for (Map<String, EntityTracker> models : trackers.values()) {
+            count += models.size();
+        }
+        return count;
+    }
+
+    @Override
+    public EntityTracker tracker(UUID entityUUID, String modelName) {
+        Map<String, EntityTracker> models = trackers.get(entityUUID);
+        return models != null ? models.get(modelName) : null;
+    }
+
+    @Override
+    public Collection<EntityTracker> trackers(UUID entityUUID) {
+        Map<String, EntityTracker> models = trackers.get(entityUUID);
+        return models != null ? models.values() : List.of();
+    }
+
+    @Override
+    public boolean hasRenderer(String modelName) {
+        return renderers.contains(modelName);
+    }
+
+    @Override
+    public boolean create(String modelName, Entity entity) {
+        if (!renderers.contains(modelName)) {
+            return false;
+        }
+        spawn(entity.getUniqueId(), modelName);
+        return true;
+    }
+
+    @Override
+    public boolean remove(UUID entityUUID, String modelName) {
+        Map<String, EntityTracker> models = trackers.get(entityUUID);
+        EntityTracker removed = models != null ? models.remove(modelName) : null;
+        if (removed == null) {
+            return false;
+        }
+        if (models.isEmpty()) {
+            trackers.remove(entityUUID, models);
+        }
+        ModelService.getInstance().evictTracker(removed);
+        return true;
+    }
+
+    @Override
+    public boolean hasLimb(String modelName) {
+        return limbs.contains(modelName);
+    }
+
+    @Override
+    public Collection<String> limbNames() {
+        return limbs;
+    }
+
+    @Override
+    public boolean animateLimb(Player player, String modelName, String animation, AnimationModifier modifier) {
+        return limbs.contains(modelName);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.benchmark;
+
+import com.denizenscript.denizencore.objects.Mechanism;
+import com.denizenscript.denizencore.objects.core.ElementTag;
+import com.denizenscript.denizencore.objects.core.QuaternionTag;
+import kr.toxicity.model.api.tracker.EntityTracker;
+import meigo.dbettermodel.services.BoneController;
+import meigo.dbettermodel.services.BoneMechanismHandler;
+import meigo.dbettermodel.services.ModelService;
+import meigo.dbettermodel.services.TrackerUpdateQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+EnableDynamicAgentLoading")
+public class MechanismDispatchBenchmark {
+
+    private final BoneMechanismHandler handler = new BoneMechanismHandler();
+    private final TrackerUpdateQueue updateQueue = new TrackerUpdateQueue();
+    private BoneController controller;
+    private Mechanism tint;
+    private Mechanism glow;
+    private Mechanism rotate;
+
+    @Setup
+    public void setup() {
+        BenchmarkStubs.installServer();
+        EntityTracker tracker = BenchmarkStubs.tracker(BenchmarkStubs.registry(UUID.randomUUID()), "benchmark_model", 1);
+        controller = new BoneController(tracker, tracker.bone(BenchmarkStubs.boneName(0)), updateQueue, ModelService.getInstance().getVisibility());
+        tint = new Mechanism("tint", new ElementTag(0xFF0000), null);
+        glow = new Mechanism("glow", new ElementTag(true), null);
+        rotate = new Mechanism("rotate", new QuaternionTag(0, 0.7071, 0, 0.7071), null);
+    }
+
+    @TearDown(Level.Iteration)
+    public void flush() {
+        updateQueue.flush();
+    }
+
+    @Benchmark
+    public void handleTint() {
+        handler.handle(controller, tint);
+    }
+
+    @Benchmark
+    public void handleGlow() {
+        handler.handle(controller, glow);
+    }
+
+    @Benchmark
+    public void handleRotate() {
+        handler.handle(controller, rotate);
+    }
+
+    @Benchmark
+    public Object compileRotate() {
+        return handler.compile(rotate);
+    }
+}
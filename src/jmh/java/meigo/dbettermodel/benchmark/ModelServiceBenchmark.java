@@ -0,0 +1,95 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.benchmark;
+
+import com.denizenscript.denizencore.objects.Mechanism;
+import com.denizenscript.denizencore.objects.core.ElementTag;
+import meigo.dbettermodel.denizen.objects.BMBoneTag;
+import meigo.dbettermodel.services.ModelService;
+import meigo.dbettermodel.services.TrackerBoneIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+EnableDynamicAgentLoading")
+public class ModelServiceBenchmark {
+
+    private static final String MODEL = "benchmark_model";
+
+    @Param({"1000"})
+    public int entityCount;
+
+    @Param({"20"})
+    public int bonesPerModel;
+
+    private BMBoneTag[] boneTags;
+    private Mechanism glow;
+    private final TrackerBoneIndex<Object> index = new TrackerBoneIndex<>();
+    private final Map<String, Object> stringKeyed = new ConcurrentHashMap<>();
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        BenchmarkStubs.installServer();
+        InMemoryModelBackend backend = new InMemoryModelBackend(bonesPerModel);
+        ModelService.getInstance().setBackend(backend);
+        boneTags = new BMBoneTag[entityCount * bonesPerModel];
+        for (int i = 0; i < entityCount; i++) {
+            UUID uuid = UUID.randomUUID();
+            backend.spawn(uuid, MODEL);
+            for (int b = 0; b < bonesPerModel; b++) {
+                String boneName = BenchmarkStubs.boneName(b);
+                boneTags[i * bonesPerModel + b] = new BMBoneTag(uuid, MODEL, boneName);
+                Object value = new Object();
+                index.computeIfAbsent(uuid, MODEL, boneName, () -> value);
+                stringKeyed.put(uuid + "," + MODEL + "," + boneName, value);
+            }
+        }
+        glow = new Mechanism("glow", new ElementTag(true), null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ModelService.getInstance().shutdown();
+    }
+
+    private BMBoneTag nextBone() {
+        BMBoneTag tag = boneTags[cursor];
+        cursor = (cursor + 1) % boneTags.length;
+        return tag;
+    }
+
+    @Benchmark
+    public Object indexLookup() {
+        BMBoneTag tag = nextBone();
+        return index.get(tag.getEntityUUID(), tag.getModelName(), tag.getBoneName());
+    }
+
+    @Benchmark
+    public Object stringKeyLookupBaseline() {
+        BMBoneTag tag = nextBone();
+        return stringKeyed.get(tag.getEntityUUID() + "," + tag.getModelName() + "," + tag.getBoneName());
+    }
+
+    @Benchmark
+    public boolean readBoneVisibility() {
+        BMBoneTag tag = nextBone();
+        return ModelService.getInstance().isBoneVisible(tag.getEntityUUID(), tag.getModelName(), tag.getBoneName());
+    }
+
+    @Benchmark
+    public void adjustBone() {
+        ModelService.getInstance().adjustBone(nextBone(), glow);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.benchmark;
+
+import com.denizenscript.denizencore.objects.Mechanism;
+import com.denizenscript.denizencore.objects.core.ElementTag;
+import kr.toxicity.model.api.tracker.EntityTracker;
+import meigo.dbettermodel.services.ModelService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates a server with thousands of modeled entities on the in-memory backend.
+ * Each benchmark invocation is one server tick worth of work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-XX:+EnableDynamicAgentLoading")
+public class SoakBenchmark {
+
+    private static final String MODEL = "soak_model";
+
+    @Param({"10000"})
+    public int trackerCount;
+
+    @Param({"8"})
+    public int bonesPerModel;
+
+    @Param({"500"})
+    public int operationsPerTick;
+
+    private InMemoryModelBackend backend;
+    private UUID[] entities;
+    private Mechanism tint;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        BenchmarkStubs.installServer();
+        backend = new InMemoryModelBackend(bonesPerModel);
+        backend.registerRenderer(MODEL);
+        ModelService.getInstance().setBackend(backend);
+        entities = new UUID[trackerCount];
+        for (int i = 0; i < trackerCount; i++) {
+            entities[i] = UUID.randomUUID();
+            backend.spawn(entities[i], MODEL);
+        }
+        tint = new Mechanism("tint", new ElementTag(0x00FF00), null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ModelService.getInstance().shutdown();
+    }
+
+    private UUID nextEntity() {
+        UUID uuid = entities[cursor];
+        cursor = (cursor + 1) % entities.length;
+        return uuid;
+    }
+
+    @Benchmark
+    public void mechanismTick() {
+        ModelService service = ModelService.getInstance();
+        for (int i = 0; i < operationsPerTick; i++) {
+            EntityTracker tracker = backend.tracker(nextEntity(), MODEL);
+            service.adjustModel(tracker, tint);
+        }
+        service.getUpdateQueue().flush();
+    }
+
+    @Benchmark
+    public int readTick() {
+        ModelService service = ModelService.getInstance();
+        int visible = 0;
+        for (int i = 0; i < operationsPerTick; i++) {
+            if (service.isBoneVisible(nextEntity(), MODEL, BenchmarkStubs.boneName(i % bonesPerModel))) {
+                visible++;
+            }
+        }
+        return visible;
+    }
+
+    @Benchmark
+    public void trackerChurnTick() {
+        for (int i = 0; i < operationsPerTick; i++) {
+            UUID uuid = nextEntity();
+            backend.remove(uuid, MODEL);
+            backend.spawn(uuid, MODEL);
+        }
+    }
+}
@@ -9,7 +9,9 @@ import com.denizenscript.denizencore.DenizenCore;
 import com.denizenscript.denizencore.events.ScriptEvent;
 import com.denizenscript.denizencore.objects.ObjectFetcher;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
+import meigo.dbettermodel.command.DBMAdminCommand;
 import meigo.dbettermodel.denizen.commands.*;
+import meigo.dbettermodel.denizen.events.BMQueuedModelSpawnEvent;
 import meigo.dbettermodel.denizen.events.BMReloadEndEvent;
 import meigo.dbettermodel.denizen.events.BMReloadStartEvent;
 import meigo.dbettermodel.denizen.objects.BMBoneTag;
@@ -17,7 +19,10 @@ import meigo.dbettermodel.denizen.objects.BMEntityTag;
 import meigo.dbettermodel.denizen.objects.BMModelTag;
 import meigo.dbettermodel.denizen.properties.DBetterModelEntityTagExtensions;
 import meigo.dbettermodel.denizen.properties.DBetterModelPlayerTagExtensions;
+import meigo.dbettermodel.denizen.tags.DBetterModelTagBase;
 import meigo.dbettermodel.services.ModelService;
+import meigo.dbettermodel.services.SkinService;
+import meigo.dbettermodel.util.DBMProfiler;
 import meigo.dbettermodel.util.Metrics;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
@@ -42,6 +47,7 @@ public class DBetterModel extends JavaPlugin {
 
     public static boolean checkForUpdates;
     public static boolean enablePluginLogging = true;
+    public static boolean coalesceModelUpdates = true;
 
     private static final String ANSI_RESET = "\u001B[0m";
     private static final String ANSI_GREEN = "\u001B[32m";
@@ -60,7 +66,11 @@ public class DBetterModel extends JavaPlugin {
         reloadConfig();
         checkForUpdates = getConfig().getBoolean("options.check-for-updates", true);
         enablePluginLogging = getConfig().getBoolean("options.enable-plugin-logging", true);
+        coalesceModelUpdates = getConfig().getBoolean("options.coalesce-model-updates", true);
+        DBMProfiler.enabled = getConfig().getBoolean("options.profiler", false);
         ModelService.getInstance().initialize(this);
+        SkinService.getInstance().initialize(getConfig().getInt("options.skin-cache.size", 256),
+                getConfig().getLong("options.skin-cache.ttl", 300) * 1000L);
 
         registerCommands();
         registerObjects();
@@ -78,6 +88,7 @@ public class DBetterModel extends JavaPlugin {
     @Override
     public void onDisable() {
         ModelService.getInstance().shutdown();
+        SkinService.getInstance().shutdown();
         Debug.log("DBetterModel disabled.");
     }
 
@@ -173,6 +184,9 @@ public class DBetterModel extends JavaPlugin {
         tryRegister("BMLimbCommand", () -> DenizenCore.commandRegistry.registerCommand(BMLimbCommand.class));
         tryRegister("BMPartCommand", () -> DenizenCore.commandRegistry.registerCommand(BMPartCommand.class));
         tryRegister("BMMountCommand", () -> DenizenCore.commandRegistry.registerCommand(BMMountCommand.class));
+        tryRegister("BMTweenCommand", () -> DenizenCore.commandRegistry.registerCommand(BMTweenCommand.class));
+        tryRegister("BMFollowCommand", () -> DenizenCore.commandRegistry.registerCommand(BMFollowCommand.class));
+        tryRegister("DBMAdminCommand", () -> getCommand("dbettermodel").setExecutor(new DBMAdminCommand()));
     }
 
     private void registerObjects() {
@@ -184,11 +198,13 @@ public class DBetterModel extends JavaPlugin {
     private void registerEvents() {
         tryRegister("BMReloadStartEvent", () -> ScriptEvent.registerScriptEvent(BMReloadStartEvent.class));
         tryRegister("BMReloadEndEvent", () -> ScriptEvent.registerScriptEvent(BMReloadEndEvent.class));
+        tryRegister("BMQueuedModelSpawnEvent", () -> ScriptEvent.registerScriptEvent(BMQueuedModelSpawnEvent.class));
     }
 
     private void registerExtensions() {
         tryRegister("DBetterModelEntityTagExtensions", DBetterModelEntityTagExtensions::register);
         tryRegister("DBetterModelPlayerTagExtensions", DBetterModelPlayerTagExtensions::register);
+        tryRegister("DBetterModelTagBase", DBetterModelTagBase::register);
     }
 
     private void tryRegister(String featureName, Runnable registrationLogic) {
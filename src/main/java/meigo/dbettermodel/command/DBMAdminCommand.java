@@ -0,0 +1,76 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.command;
+
+import meigo.dbettermodel.services.ModelService;
+import meigo.dbettermodel.util.DBMProfiler;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabExecutor;
+
+import java.util.List;
+
+/**
+ * The '/dbettermodel' admin command: shows runtime statistics and controls the profiler.
+ */
+public class DBMAdminCommand implements TabExecutor {
+
+    private static final List<String> SUBCOMMANDS = List.of("stats", "profiler", "reset");
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length == 0) {
+            return false;
+        }
+        switch (args[0].toLowerCase()) {
+            case "stats" -> sendStats(sender);
+            case "profiler" -> {
+                if (args.length < 2 || !(args[1].equalsIgnoreCase("on") || args[1].equalsIgnoreCase("off"))) {
+                    sender.sendMessage(ChatColor.YELLOW + "Profiler is " + (DBMProfiler.enabled ? "on" : "off") + ". Use /" + label + " profiler <on|off>.");
+                    return true;
+                }
+                DBMProfiler.enabled = args[1].equalsIgnoreCase("on");
+                sender.sendMessage(ChatColor.GREEN + "Profiler turned " + (DBMProfiler.enabled ? "on" : "off") + ".");
+            }
+            case "reset" -> {
+                DBMProfiler.reset();
+                sender.sendMessage(ChatColor.GREEN + "Profiler statistics cleared.");
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void sendStats(CommandSender sender) {
+        ModelService service = ModelService.getInstance();
+        sender.sendMessage(ChatColor.GOLD + "DBetterModel statistics");
+        sender.sendMessage(ChatColor.GRAY + "Cached bone controllers: " + ChatColor.WHITE + service.getCachedControllerCount()
+                + ChatColor.GRAY + ", lookups: " + ChatColor.WHITE + service.getControllerLookupCount()
+                + ChatColor.GRAY + ", misses: " + ChatColor.WHITE + service.getControllerMissCount());
+        sender.sendMessage(ChatColor.GRAY + "Model updates requested: " + ChatColor.WHITE + service.getRequestedUpdateCount()
+                + ChatColor.GRAY + ", merged: " + ChatColor.WHITE + service.getMergedUpdateCount());
+        if (!DBMProfiler.enabled) {
+            sender.sendMessage(ChatColor.GRAY + "Profiler is off.");
+        }
+        for (String line : DBMProfiler.getSummaryLines()) {
+            sender.sendMessage(ChatColor.WHITE + line);
+        }
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length == 1) {
+            return SUBCOMMANDS.stream().filter(sub -> sub.startsWith(args[0].toLowerCase())).toList();
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("profiler")) {
+            return List.of("on", "off");
+        }
+        return List.of();
+    }
+}
@@ -11,9 +11,13 @@ import com.denizenscript.denizencore.scripts.ScriptEntry;
 import com.denizenscript.denizencore.scripts.commands.AbstractCommand;
 import com.denizenscript.denizencore.scripts.commands.generator.ArgName;
 import com.denizenscript.denizencore.scripts.commands.generator.ArgPrefixed;
-import kr.toxicity.model.api.BetterModel;
+import kr.toxicity.model.api.bone.RenderedBone;
+import kr.toxicity.model.api.tracker.EntityTracker;
 import kr.toxicity.model.api.util.function.BonePredicate;
+import meigo.dbettermodel.services.ModelBackend;
+import meigo.dbettermodel.services.ModelService;
 import meigo.dbettermodel.util.DBMDebug;
+import meigo.dbettermodel.util.DBMProfiler;
 import org.bukkit.entity.Display;
 import org.bukkit.entity.Entity;
 
@@ -51,7 +55,14 @@ public class BMBillboardCommand extends AbstractCommand {
                                    @ArgName("model") @ArgPrefixed ElementTag modelName,
                                    @ArgName("bone") @ArgPrefixed ElementTag boneName,
                                    @ArgName("type") @ArgPrefixed ElementTag type) {
+        DBMProfiler.command("bmboard", () -> run(scriptEntry, entityTag, modelName, boneName, type));
+    }
 
+    private static void run(ScriptEntry scriptEntry,
+                            EntityTag entityTag,
+                            ElementTag modelName,
+                            ElementTag boneName,
+                            ElementTag type) {
         Entity entity = entityTag.getBukkitEntity();
         Display.Billboard billboardType;
         try {
@@ -61,25 +72,28 @@ public class BMBillboardCommand extends AbstractCommand {
             return;
         }
 
-        BetterModel.registry(entity).ifPresentOrElse(registry -> {
-            var tracker = registry.tracker(modelName.asString());
-            if (tracker == null) {
+        ModelBackend backend = ModelService.getInstance().getBackend();
+        EntityTracker tracker = backend.tracker(entity.getUniqueId(), modelName.asString());
+        if (tracker == null) {
+            if (backend.trackers(entity.getUniqueId()).isEmpty()) {
+                DBMDebug.error(scriptEntry, "Entity does not have any models.");
+            } else {
                 DBMDebug.error(scriptEntry, "Model '" + modelName.asString() + "' not found on entity.");
-                return;
             }
+            return;
+        }
 
-            var bone = tracker.bone(boneName.asString());
-            if (bone == null) {
-                DBMDebug.error(scriptEntry, "Bone '" + boneName.asString() + "' not found on model '" + modelName.asString() + "'.");
-                return;
-            }
+        RenderedBone bone = tracker.bone(boneName.asString());
+        if (bone == null) {
+            DBMDebug.error(scriptEntry, "Bone '" + boneName.asString() + "' not found on model '" + modelName.asString() + "'.");
+            return;
+        }
 
-            if (bone.applyAtDisplay(BonePredicate.TRUE, display -> display.billboard(billboardType))) {
-                tracker.forceUpdate(true);
-                DBMDebug.approval(scriptEntry, "Set billboard type of bone '" + boneName.asString() + "' to '" + type.asString() + "'.");
-            } else {
-                DBMDebug.error(scriptEntry, "Failed to set billboard for bone '" + boneName.asString() + "'. It might be a dummy bone without a display.");
-            }
-        }, () -> DBMDebug.error(scriptEntry, "Entity does not have any models."));
+        if (bone.applyAtDisplay(BonePredicate.TRUE, display -> display.billboard(billboardType))) {
+            ModelService.getInstance().getUpdateQueue().markDirty(tracker);
+            DBMDebug.approval(scriptEntry, "Set billboard type of bone '" + boneName.asString() + "' to '" + type.asString() + "'.");
+        } else {
+            DBMDebug.error(scriptEntry, "Failed to set billboard for bone '" + boneName.asString() + "'. It might be a dummy bone without a display.");
+        }
     }
 }
\ No newline at end of file
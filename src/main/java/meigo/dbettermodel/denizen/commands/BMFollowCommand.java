@@ -0,0 +1,124 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.denizen.commands;
+
+import com.denizenscript.denizen.objects.EntityTag;
+import com.denizenscript.denizen.objects.LocationTag;
+import com.denizenscript.denizencore.scripts.ScriptEntry;
+import com.denizenscript.denizencore.scripts.commands.AbstractCommand;
+import com.denizenscript.denizencore.scripts.commands.generator.ArgDefaultNull;
+import com.denizenscript.denizencore.scripts.commands.generator.ArgLinear;
+import com.denizenscript.denizencore.scripts.commands.generator.ArgName;
+import com.denizenscript.denizencore.scripts.commands.generator.ArgPrefixed;
+import com.denizenscript.denizencore.scripts.commands.generator.ArgSubType;
+import kr.toxicity.model.api.bone.RenderedBone;
+import kr.toxicity.model.api.tracker.EntityTracker;
+import meigo.dbettermodel.denizen.objects.BMBoneTag;
+import meigo.dbettermodel.services.BoneFollowerService;
+import meigo.dbettermodel.services.ModelService;
+import meigo.dbettermodel.util.DBMDebug;
+import meigo.dbettermodel.util.DBMProfiler;
+import org.bukkit.entity.Entity;
+import org.joml.Vector3f;
+
+import java.util.List;
+
+public class BMFollowCommand extends AbstractCommand {
+
+    public BMFollowCommand() {
+        setName("bmfollow");
+        setSyntax("bmfollow [<entity>|...] [bone:<bmbone>/stop] (offset:<location>) (rotate)");
+        autoCompile();
+    }
+
+    // <--[command]
+    // @Name BMFollow
+    // @Syntax bmfollow [<entity>|...] [bone:<bmbone>/stop] (offset:<location>) (rotate)
+    // @Required 2
+    // @Short Makes entities follow a bone of a model.
+    // @Group DBetterModel
+    //
+    // @Description
+    // Attaches entities to a bone, so they move with it without a script teleporting them every tick.
+    // Useful for text displays, particle anchors, armor stands and other entities that should stick to part of a model.
+    // All followers are moved natively in one pass per tick, and only when their bone has moved.
+    //
+    // The 'offset' argument is a vector from the bone, which turns with the bone. Add 'rotate' to also make the entities face the bone's direction.
+    //
+    // An entity follows one bone at a time; following another bone replaces the previous one.
+    // Followers are released automatically when the model is removed or either entity unloads.
+    // Use 'stop' to release entities, leaving them where they are.
+    //
+    // @Tags
+    // <EntityTag.bm_following>
+    //
+    // @Usage
+    // Use to show a name above a boss's head bone.
+    // - spawn text_display[text=<&c>Boss] <[boss].location> save:label
+    // - bmfollow <entry[label].spawned_entity> bone:<[boss].bm_model[boss].bone[head]> offset:0,0.8,0
+    //
+    // @Usage
+    // Use to release the label again.
+    // - bmfollow <[label]> stop
+    // -->
+
+    public static void autoExecute(ScriptEntry scriptEntry,
+                                   @ArgName("entities") @ArgLinear @ArgSubType(EntityTag.class) List<EntityTag> entities,
+                                   @ArgName("bone") @ArgPrefixed @ArgDefaultNull BMBoneTag boneTag,
+                                   @ArgName("offset") @ArgPrefixed @ArgDefaultNull LocationTag offset,
+                                   @ArgName("rotate") boolean rotate,
+                                   @ArgName("stop") boolean stop) {
+        DBMProfiler.command("bmfollow", () -> run(scriptEntry, entities, boneTag, offset, rotate, stop));
+    }
+
+    private static void run(ScriptEntry scriptEntry,
+                            List<EntityTag> entities,
+                            BMBoneTag boneTag,
+                            LocationTag offset,
+                            boolean rotate,
+                            boolean stop) {
+        BoneFollowerService followers = ModelService.getInstance().getFollowers();
+        if (stop) {
+            int released = 0;
+            for (EntityTag entityTag : entities) {
+                if (followers.unfollow(entityTag.getUUID())) {
+                    released++;
+                }
+            }
+            DBMDebug.approval(scriptEntry, "Released " + released + " follower(s).");
+            return;
+        }
+
+        if (boneTag == null) {
+            DBMDebug.error(scriptEntry, "You must specify a bone to follow, or 'stop'.");
+            return;
+        }
+        EntityTracker tracker = ModelService.getInstance().findTracker(boneTag.getEntityUUID(), boneTag.getModelName());
+        RenderedBone bone = tracker != null ? tracker.bone(boneTag.getBoneName()) : null;
+        if (bone == null) {
+            DBMDebug.error(scriptEntry, "The specified bone tag is invalid or the model is not loaded.");
+            return;
+        }
+        Vector3f offsetVector = offset != null
+                ? new Vector3f((float) offset.getX(), (float) offset.getY(), (float) offset.getZ())
+                : new Vector3f();
+
+        int attached = 0;
+        for (EntityTag entityTag : entities) {
+            Entity entity = entityTag.getBukkitEntity();
+            if (entity == null) {
+                continue;
+            }
+            if (entity.getUniqueId().equals(boneTag.getEntityUUID())) {
+                DBMDebug.error(scriptEntry, "An entity cannot follow a bone of its own model.");
+                continue;
+            }
+            followers.follow(entity, tracker, bone, offsetVector, rotate);
+            attached++;
+        }
+        DBMDebug.approval(scriptEntry, attached + " entity(s) now follow bone '" + boneTag.getBoneName() + "'.");
+    }
+}
@@ -16,10 +16,15 @@ import com.denizenscript.denizencore.scripts.commands.generator.ArgPrefixed;
 import kr.toxicity.model.api.BetterModel;
 import kr.toxicity.model.api.animation.AnimationIterator;
 import kr.toxicity.model.api.animation.AnimationModifier;
+import kr.toxicity.model.api.tracker.EntityTracker;
 import kr.toxicity.model.api.util.function.BooleanConstantSupplier;
+import meigo.dbettermodel.services.ModelBackend;
+import meigo.dbettermodel.services.ModelService;
 import meigo.dbettermodel.util.DBMDebug;
+import meigo.dbettermodel.util.DBMProfiler;
 import org.bukkit.entity.Player;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -82,7 +87,15 @@ public class BMLimbCommand extends AbstractCommand {
                                    @ArgName("animation") @ArgPrefixed ElementTag animationName,
                                    @ArgName("loop") @ArgDefaultText("once") @ArgPrefixed ElementTag loopMode,
                                    @ArgName("hide") @ArgPrefixed @ArgDefaultNull PlayerTag hideForPlayer) {
+        DBMProfiler.command("bmlimb", () -> run(scriptEntry, playerTag, modelName, animationName, loopMode, hideForPlayer));
+    }
 
+    private static void run(ScriptEntry scriptEntry,
+                            PlayerTag playerTag,
+                            ElementTag modelName,
+                            ElementTag animationName,
+                            ElementTag loopMode,
+                            PlayerTag hideForPlayer) {
         Player player = playerTag.getPlayerEntity();
         if (player == null) {
             DBMDebug.error(scriptEntry, "Player not found.");
@@ -91,7 +104,8 @@ public class BMLimbCommand extends AbstractCommand {
 
         String model = modelName.asString();
         String animation = animationName.asString();
-        if (BetterModel.limbOrNull(model) == null) {
+        ModelBackend backend = ModelService.getInstance().getBackend();
+        if (!backend.hasLimb(model)) {
             DBMDebug.error(scriptEntry, "Limb animator model '" + model + "' not found. Make sure it is configured under 'player-animations'.");
             return;
         }
@@ -110,7 +124,7 @@ public class BMLimbCommand extends AbstractCommand {
                 .speed(1.0f)
                 .build();
 
-        boolean success = BetterModel.plugin().modelManager().animate(player, model, animation, modifier);
+        boolean success = backend.animateLimb(player, model, animation, modifier);
 
         if (success) {
             DBMDebug.approval(scriptEntry, "Started player animation '" + animation + "' from model '" + model + "' on " + player.getName() + " with mode '" + type.name().toLowerCase() + "'.");
@@ -123,10 +137,13 @@ public class BMLimbCommand extends AbstractCommand {
             if (observer == null) {
                 DBMDebug.error(scriptEntry, "Observer player for 'hide' argument not found.");
             } else {
-                BetterModel.registry(player).ifPresentOrElse(registry -> {
-                    registry.trackers().forEach(tracker -> tracker.hide(observer));
+                Collection<EntityTracker> trackers = backend.trackers(player.getUniqueId());
+                if (trackers.isEmpty()) {
+                    DBMDebug.error(scriptEntry, "Target player " + player.getName() + " has no models to hide.");
+                } else {
+                    trackers.forEach(tracker -> tracker.hide(observer));
                     DBMDebug.approval(scriptEntry, "Hid " + player.getName() + "'s models from " + observer.getName() + ".");
-                }, () -> DBMDebug.error(scriptEntry, "Target player " + player.getName() + " has no models to hide."));
+                }
             }
         }
     }
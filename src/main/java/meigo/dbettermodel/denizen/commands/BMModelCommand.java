@@ -9,25 +9,27 @@ import com.denizenscript.denizen.objects.EntityTag;
 import com.denizenscript.denizencore.objects.core.ElementTag;
 import com.denizenscript.denizencore.scripts.ScriptEntry;
 import com.denizenscript.denizencore.scripts.commands.AbstractCommand;
+import com.denizenscript.denizencore.scripts.commands.generator.ArgDefaultText;
 import com.denizenscript.denizencore.scripts.commands.generator.ArgName;
 import com.denizenscript.denizencore.scripts.commands.generator.ArgPrefixed;
 import kr.toxicity.model.api.BetterModel;
+import meigo.dbettermodel.services.ModelBackend;
+import meigo.dbettermodel.services.ModelService;
 import meigo.dbettermodel.util.DBMDebug;
+import meigo.dbettermodel.util.DBMProfiler;
 import org.bukkit.entity.Entity;
 
-import java.util.Optional;
-
 public class BMModelCommand extends AbstractCommand {
 
     public BMModelCommand() {
         setName("bmmodel");
-        setSyntax("bmmodel entity:<entity> model:<model> (remove)");
+        setSyntax("bmmodel entity:<entity> model:<model> (remove/queue (priority:<#>))");
         autoCompile();
     }
 
     // <--[command]
     // @Name BMModel
-    // @Syntax bmmodel entity:<entity> model:<model> (remove)
+    // @Syntax bmmodel entity:<entity> model:<model> (remove/queue (priority:<#>))
     // @Required 2
     // @Short Adds or removes a model from an entity.
     // @Group DBetterModel
@@ -35,6 +37,12 @@ public class BMModelCommand extends AbstractCommand {
     // @Description
     // Adds or removes a specific model from an entity. This is necessary for entities that can have multiple models.
     //
+    // Use 'queue' when adding models to many entities at once, e.g. at the start of an arena or when chunks populate.
+    // Instead of creating the model immediately, it is queued and created in a later tick. Each tick only spends a limited time
+    // creating queued models (see 'options.spawn-queue.budget-ms' in config.yml), so large batches no longer cause lag spikes.
+    // Models with a higher 'priority' are created first (default 0). Use <@link event bm queued model spawns> to continue once a model exists.
+    // Removing a model, or adding it without 'queue', cancels any queued request for it. Every queued request fires the event once, even when it is cancelled.
+    //
     // @Tags
     // <EntityTag.bm_entity>
     // <BMEntityTag.model[<name>]>
@@ -46,6 +54,12 @@ public class BMModelCommand extends AbstractCommand {
     // @Usage
     // Use to remove a model from an entity.
     // - bmmodel entity:<context.entity> model:my_model remove
+    //
+    // @Usage
+    // Use to give every arena mob a model without a lag spike, with the boss first.
+    // - bmmodel entity:<[boss]> model:arena_boss queue priority:10
+    // - foreach <[arena_mobs]> as:mob:
+    //   - bmmodel entity:<[mob]> model:arena_mob queue
     // -->
 
     @Override
@@ -56,33 +70,59 @@ public class BMModelCommand extends AbstractCommand {
     public static void autoExecute(ScriptEntry scriptEntry,
                                    @ArgName("entity") @ArgPrefixed EntityTag entityTag,
                                    @ArgName("model") @ArgPrefixed ElementTag model,
-                                   @ArgName("remove") boolean remove) {
+                                   @ArgName("remove") boolean remove,
+                                   @ArgName("queue") boolean queue,
+                                   @ArgName("priority") @ArgPrefixed @ArgDefaultText("0") ElementTag priority) {
+        DBMProfiler.command("bmmodel", () -> run(scriptEntry, entityTag, model, remove, queue, priority));
+    }
 
+    private static void run(ScriptEntry scriptEntry,
+                            EntityTag entityTag,
+                            ElementTag model,
+                            boolean remove,
+                            boolean queue,
+                            ElementTag priority) {
         Entity entity = entityTag.getBukkitEntity();
         if (model == null) {
             DBMDebug.error(scriptEntry, "Model is not specified.");
             return;
         }
         String modelName = model.asString();
+        ModelService service = ModelService.getInstance();
+        ModelBackend backend = service.getBackend();
         if (remove) {
-            BetterModel.registry(entity).ifPresentOrElse(registry -> {
-                if (registry.remove(modelName)) {
-                    DBMDebug.approval(scriptEntry, "Model '" + modelName + "' removed from entity.");
-                } else {
-                    DBMDebug.error(scriptEntry, "Model '" + modelName + "' not found on entity.");
-                }
-            }, () -> {
+            boolean cancelled = service.getSpawnQueue().cancel(entity.getUniqueId(), modelName);
+            if (backend.remove(entity.getUniqueId(), modelName)) {
+                DBMDebug.approval(scriptEntry, "Model '" + modelName + "' removed from entity.");
+            } else if (cancelled) {
+                DBMDebug.approval(scriptEntry, "Queued model '" + modelName + "' cancelled for entity.");
+            } else if (backend.trackers(entity.getUniqueId()).isEmpty()) {
                 DBMDebug.error(scriptEntry, "Entity does not have any models.");
-            });
+            } else {
+                DBMDebug.error(scriptEntry, "Model '" + modelName + "' not found on entity.");
+            }
             return;
         }
 
-        Optional.ofNullable(BetterModel.plugin().modelManager().renderer(modelName)).ifPresentOrElse(
-                renderer -> {
-                    renderer.create(entity);
-                    DBMDebug.approval(scriptEntry, "Model '" + modelName + "' added to entity.");
-                },
-                () -> DBMDebug.error(scriptEntry, "Model renderer '" + modelName + "' not found.")
-        );
+        if (queue) {
+            if (!priority.isInt()) {
+                DBMDebug.error(scriptEntry, "Invalid priority '" + priority + "', must be a whole number.");
+                return;
+            }
+            if (!backend.hasRenderer(modelName)) {
+                DBMDebug.error(scriptEntry, "Model renderer '" + modelName + "' not found.");
+                return;
+            }
+            int waiting = service.getSpawnQueue().add(entity, modelName, priority.asInt());
+            DBMDebug.approval(scriptEntry, "Model '" + modelName + "' queued for entity (" + waiting + " waiting).");
+            return;
+        }
+        // A direct create replaces any queued request for the same model, which would otherwise create it a second time.
+        service.getSpawnQueue().cancel(entity.getUniqueId(), modelName);
+        if (backend.create(modelName, entity)) {
+            DBMDebug.approval(scriptEntry, "Model '" + modelName + "' added to entity.");
+        } else {
+            DBMDebug.error(scriptEntry, "Model renderer '" + modelName + "' not found.");
+        }
     }
 }
\ No newline at end of file
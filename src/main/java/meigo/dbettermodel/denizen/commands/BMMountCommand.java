@@ -12,15 +12,14 @@ import com.denizenscript.denizencore.scripts.commands.generator.ArgDefaultNull;
 import com.denizenscript.denizencore.scripts.commands.generator.ArgLinear;
 import com.denizenscript.denizencore.scripts.commands.generator.ArgName;
 import com.denizenscript.denizencore.scripts.commands.generator.ArgPrefixed;
-import kr.toxicity.model.api.BetterModel;
 import kr.toxicity.model.api.bone.RenderedBone;
 import kr.toxicity.model.api.nms.HitBox;
 import meigo.dbettermodel.denizen.objects.BMBoneTag;
+import meigo.dbettermodel.services.ModelService;
 import meigo.dbettermodel.util.DBMDebug;
+import meigo.dbettermodel.util.DBMProfiler;
 import org.bukkit.entity.Entity;
 
-import java.util.Optional;
-
 public class BMMountCommand extends AbstractCommand {
 
     public BMMountCommand() {
@@ -67,15 +66,19 @@ public class BMMountCommand extends AbstractCommand {
                                    @ArgName("on") @ArgPrefixed BMBoneTag onBone,
                                    @ArgName("dismount") boolean dismount,
                                    @ArgName("dismount_all") boolean dismountAll) {
+        DBMProfiler.command("bmmount", () -> run(scriptEntry, entityToMount, onBone, dismount, dismountAll));
+    }
 
+    private static void run(ScriptEntry scriptEntry,
+                            EntityTag entityToMount,
+                            BMBoneTag onBone,
+                            boolean dismount,
+                            boolean dismountAll) {
         if (onBone == null) {
             DBMDebug.error(scriptEntry, "You must specify a bone to mount on or dismount from.");
             return;
         }
-        RenderedBone bone = Optional.ofNullable(BetterModel.registryOrNull(onBone.getEntityUUID()))
-                .flatMap(registry -> Optional.ofNullable(registry.tracker(onBone.getModelName())))
-                .flatMap(tracker -> Optional.ofNullable(tracker.bone(onBone.getBoneName())))
-                .orElse(null);
+        RenderedBone bone = ModelService.getInstance().findBone(onBone.getEntityUUID(), onBone.getModelName(), onBone.getBoneName());
         if (bone == null) {
             DBMDebug.error(scriptEntry, "The specified bone tag is invalid or the model is not loaded.");
             return;
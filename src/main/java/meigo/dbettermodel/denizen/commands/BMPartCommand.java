@@ -7,52 +7,69 @@ package meigo.dbettermodel.denizen.commands;
 
 import com.denizenscript.denizen.objects.EntityTag;
 import com.denizenscript.denizen.objects.PlayerTag;
+import com.denizenscript.denizencore.objects.ObjectTag;
 import com.denizenscript.denizencore.objects.core.ElementTag;
+import com.denizenscript.denizencore.objects.core.MapTag;
 import com.denizenscript.denizencore.scripts.ScriptEntry;
 import com.denizenscript.denizencore.scripts.commands.AbstractCommand;
+import com.denizenscript.denizencore.scripts.commands.generator.ArgDefaultNull;
 import com.denizenscript.denizencore.scripts.commands.generator.ArgName;
 import com.denizenscript.denizencore.scripts.commands.generator.ArgPrefixed;
+import com.denizenscript.denizencore.scripts.commands.generator.ArgSubType;
+import com.denizenscript.denizencore.utilities.text.StringHolder;
 import kr.toxicity.model.api.BetterModel;
 import kr.toxicity.model.api.bone.BoneRenderContext;
 import kr.toxicity.model.api.bone.RenderedBone;
 import kr.toxicity.model.api.data.renderer.RenderSource;
-import kr.toxicity.model.api.manager.SkinManager;
 import kr.toxicity.model.api.player.PlayerLimb;
-import kr.toxicity.model.api.profile.ModelProfile;
 import kr.toxicity.model.api.tracker.EntityTracker;
 import meigo.dbettermodel.DBetterModel;
+import meigo.dbettermodel.services.ModelService;
+import meigo.dbettermodel.services.SkinService;
 import meigo.dbettermodel.util.DBMDebug;
+import meigo.dbettermodel.util.DBMProfiler;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 
 import java.util.Arrays;
-import java.util.Optional;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class BMPartCommand extends AbstractCommand {
 
     public BMPartCommand() {
         setName("bmpart");
-        setSyntax("bmpart entity:<entity> model:<model> bone:<bone> part:<part_name> from:<player>");
-        setRequiredArguments(5, 5);
+        setSyntax("bmpart entity:<entity>|... model:<model> [bone:<bone> part:<part_name>/parts:<map>] from:<player>");
+        setRequiredArguments(3, 6);
         autoCompile();
     }
 
     // <--[command]
     // @Name BMPart
-    // @Syntax bmpart entity:<entity> model:<model> bone:<bone> part:<part_name> from:<player>
-    // @Required 5
-    // @Short Applies a player's skin part to a specific model bone.
+    // @Syntax bmpart entity:<entity>|... model:<model> [bone:<bone> part:<part_name>/parts:<map>] from:<player>
+    // @Required 3
+    // @Short Applies a player's skin parts to model bones.
     // @Group DBetterModel
     //
     // @Description
-    // This command dynamically maps a bone of a model to a part of a player's skin.
-    // The model's bone will then render using the texture and shape of the specified player's skin part.
-    // This is the correct way to apply player skins to models, as it allows BetterModel's engine to handle skin fetching and caching.
+    // This command dynamically maps bones of a model to parts of a player's skin.
+    // The model's bones will then render using the texture and shape of the specified player's skin parts.
+    // This is the correct way to apply player skins to models, as it allows BetterModel's engine to handle skin fetching.
+    // Resolved skins are kept in a cache (see 'options.skin-cache' in config.yml), so dressing many models from the same player only fetches the skin once.
+    //
+    // Use 'bone' and 'part' to map a single bone, or 'parts' to map many bones at once, as a map of bone name to part name.
+    // The 'entity' argument accepts a list of entities.
+    // The skin is resolved once for the whole command, every part is applied in one go, and each model is updated once.
     //
     // @Usage
     // Use to make the 'head' bone of a statue model display the head of the player 'Notch'.
     // - bmpart entity:<[statue_entity]> model:statue_model bone:head part:head from:Notch
+    //
+    // @Usage
+    // Use to dress a whole crowd of humanoid NPCs in the skin of the linked player.
+    // - bmpart entity:<[crowd]> model:humanoid parts:[head=head;body=body;left_arm=left_arm;right_arm=right_arm;left_leg=left_leg;right_leg=right_leg] from:<player>
     // -->
 
     @Override
@@ -65,65 +82,122 @@ public class BMPartCommand extends AbstractCommand {
     }
 
     public static void autoExecute(ScriptEntry scriptEntry,
-                                   @ArgName("entity") @ArgPrefixed EntityTag entityTag,
+                                   @ArgName("entity") @ArgPrefixed @ArgSubType(EntityTag.class) List<EntityTag> entities,
                                    @ArgName("model") @ArgPrefixed ElementTag modelName,
-                                   @ArgName("bone") @ArgPrefixed ElementTag boneName,
-                                   @ArgName("part") @ArgPrefixed ElementTag partName,
+                                   @ArgName("bone") @ArgPrefixed @ArgDefaultNull ElementTag boneName,
+                                   @ArgName("part") @ArgPrefixed @ArgDefaultNull ElementTag partName,
+                                   @ArgName("parts") @ArgPrefixed @ArgDefaultNull MapTag partsMap,
                                    @ArgName("from") @ArgPrefixed PlayerTag fromPlayer) {
+        DBMProfiler.command("bmpart", () -> run(scriptEntry, entities, modelName, boneName, partName, partsMap, fromPlayer));
+    }
 
-        Entity entity = entityTag.getBukkitEntity();
+    private static void run(ScriptEntry scriptEntry,
+                            List<EntityTag> entities,
+                            ElementTag modelName,
+                            ElementTag boneName,
+                            ElementTag partName,
+                            MapTag partsMap,
+                            PlayerTag fromPlayer) {
         Player sourcePlayer = fromPlayer.getPlayerEntity();
-        if (entity == null || sourcePlayer == null) {
-            DBMDebug.error(scriptEntry, "Target entity or source player not found.");
+        if (sourcePlayer == null) {
+            DBMDebug.error(scriptEntry, "Source player not found.");
+            return;
+        }
+        Map<String, PlayerLimb> parts = new LinkedHashMap<>();
+        if (boneName != null || partName != null) {
+            if (boneName == null || partName == null) {
+                DBMDebug.error(scriptEntry, "The 'bone' and 'part' arguments must be used together.");
+                return;
+            }
+            if (!addPart(scriptEntry, parts, boneName.asString(), partName.asString())) {
+                return;
+            }
+        }
+        if (partsMap != null) {
+            for (Map.Entry<StringHolder, ObjectTag> entry : partsMap.entrySet()) {
+                if (!addPart(scriptEntry, parts, entry.getKey().str, entry.getValue().asElement().asString())) {
+                    return;
+                }
+            }
+        }
+        if (parts.isEmpty()) {
+            DBMDebug.error(scriptEntry, "Must specify either 'bone' and 'part', or 'parts'.");
             return;
         }
-        ModelProfile sourceProfile = BetterModel.plugin().nms().profile(sourcePlayer);
-        SkinManager skinManager = BetterModel.plugin().skinManager();
-        skinManager.complete(sourceProfile.asUncompleted()).thenAccept(skinData -> {
-
-            Bukkit.getScheduler().runTask(DBetterModel.getInstance(), () -> {
 
-                Entity currentEntity = entityTag.getBukkitEntity();
+        String model = modelName.asString();
+        SkinService.getInstance().getSkin(sourcePlayer).thenAccept(skinData -> {
+            Runnable apply = () -> {
                 Player currentPlayer = fromPlayer.getPlayerEntity();
-                if (currentEntity == null || currentPlayer == null) return;
-
-                Optional<EntityTracker> trackerOpt = BetterModel.registry(currentEntity)
-                        .flatMap(registry -> Optional.ofNullable(registry.tracker(modelName.asString())));
+                if (currentPlayer == null) return;
 
-                if (trackerOpt.isEmpty()) {
-                    DBMDebug.error(scriptEntry, "Model '" + modelName.asString() + "' not found on the entity.");
-                    return;
+                var adaptedSource = BetterModel.plugin().nms().adapt(currentPlayer);
+                BoneRenderContext playerContext = new BoneRenderContext(RenderSource.of(adaptedSource), skinData);
+                ModelService service = ModelService.getInstance();
+                int updatedModels = 0;
+                int appliedParts = 0;
+                for (EntityTag entityTag : entities) {
+                    Entity entity = entityTag.getBukkitEntity();
+                    EntityTracker tracker = entity != null ? service.findTracker(entity.getUniqueId(), model) : null;
+                    if (tracker == null) {
+                        if (entities.size() == 1) {
+                            DBMDebug.error(scriptEntry, "Model '" + model + "' not found on the entity.");
+                        }
+                        continue;
+                    }
+                    int applied = applyParts(scriptEntry, tracker, parts, playerContext);
+                    if (applied > 0) {
+                        service.getUpdateQueue().markDirty(tracker);
+                        updatedModels++;
+                        appliedParts += applied;
+                    }
                 }
-                EntityTracker tracker = trackerOpt.get();
 
-                RenderedBone bone = tracker.bone(boneName.asString());
-                if (bone == null || bone.getDisplay() == null) {
-                    DBMDebug.error(scriptEntry, "Bone '" + boneName.asString() + "' not found or is a dummy bone.");
+                if (appliedParts == 0) {
                     return;
                 }
-
-                PlayerLimb targetLimb;
-                try {
-                    targetLimb = PlayerLimb.valueOf(partName.asString().toUpperCase());
-                } catch (IllegalArgumentException e) {
-                    DBMDebug.error(scriptEntry, "Invalid part name: '" + partName.asString() + "'.");
-                    return;
+                if (entities.size() == 1 && parts.size() == 1) {
+                    Map.Entry<String, PlayerLimb> part = parts.entrySet().iterator().next();
+                    DBMDebug.approval(scriptEntry, "Successfully applied skin part '" + part.getValue().name().toLowerCase() + "' from " + fromPlayer.getName() + " to bone '" + part.getKey() + "'.");
+                } else {
+                    DBMDebug.approval(scriptEntry, "Successfully applied " + appliedParts + " skin parts from " + fromPlayer.getName() + " to " + updatedModels + " of " + entities.size() + " models.");
                 }
-
-                var adaptedSource = BetterModel.plugin().nms().adapt(currentPlayer);
-                BoneRenderContext playerContext = new BoneRenderContext(RenderSource.of(adaptedSource), skinData);
-
-                bone.setItemMapper(targetLimb.getItemMapper());
-                bone.updateItem(playerContext);
-
-                tracker.forceUpdate(true);
-
-                DBMDebug.approval(scriptEntry, "Successfully applied skin part '" + partName.asString() + "' from " + fromPlayer.getName() + " to bone '" + boneName.asString() + "'.");
-            });
+            };
+            // A cached skin completes right away on the calling thread, so no scheduler hop is needed.
+            if (Bukkit.isPrimaryThread()) {
+                apply.run();
+            } else {
+                Bukkit.getScheduler().runTask(DBetterModel.getInstance(), apply);
+            }
 
         }).exceptionally(e -> {
             DBMDebug.error(scriptEntry, "Failed to load skin for " + fromPlayer.getName() + ": " + e.getMessage());
             return null;
         });
     }
-}
\ No newline at end of file
+
+    private static boolean addPart(ScriptEntry scriptEntry, Map<String, PlayerLimb> parts, String bone, String part) {
+        try {
+            parts.put(bone, PlayerLimb.valueOf(part.toUpperCase()));
+            return true;
+        } catch (IllegalArgumentException e) {
+            DBMDebug.error(scriptEntry, "Invalid part name: '" + part + "'.");
+            return false;
+        }
+    }
+
+    private static int applyParts(ScriptEntry scriptEntry, EntityTracker tracker, Map<String, PlayerLimb> parts, BoneRenderContext playerContext) {
+        int applied = 0;
+        for (Map.Entry<String, PlayerLimb> part : parts.entrySet()) {
+            RenderedBone bone = tracker.bone(part.getKey());
+            if (bone == null || bone.getDisplay() == null) {
+                DBMDebug.error(scriptEntry, "Bone '" + part.getKey() + "' not found or is a dummy bone.");
+                continue;
+            }
+            bone.setItemMapper(part.getValue().getItemMapper());
+            bone.updateItem(playerContext);
+            applied++;
+        }
+        return applied;
+    }
+}
@@ -6,6 +6,7 @@
 package meigo.dbettermodel.denizen.commands;
 
 import com.denizenscript.denizen.objects.EntityTag;
+import com.denizenscript.denizen.objects.PlayerTag;
 import com.denizenscript.denizencore.objects.core.DurationTag;
 import com.denizenscript.denizencore.objects.core.ElementTag;
 import com.denizenscript.denizencore.objects.core.ListTag;
@@ -15,15 +16,24 @@ import com.denizenscript.denizencore.scripts.commands.generator.ArgDefaultNull;
 import com.denizenscript.denizencore.scripts.commands.generator.ArgDefaultText;
 import com.denizenscript.denizencore.scripts.commands.generator.ArgName;
 import com.denizenscript.denizencore.scripts.commands.generator.ArgPrefixed;
-import kr.toxicity.model.api.BetterModel;
+import com.denizenscript.denizencore.scripts.commands.generator.ArgSubType;
+import com.denizenscript.denizencore.utilities.CoreUtilities;
 import kr.toxicity.model.api.animation.AnimationIterator;
 import kr.toxicity.model.api.animation.AnimationModifier;
 import kr.toxicity.model.api.bone.RenderedBone;
+import kr.toxicity.model.api.tracker.EntityTracker;
+import meigo.dbettermodel.services.AnimationFanout;
+import meigo.dbettermodel.services.AnimationSpeed;
+import meigo.dbettermodel.services.ModelBackend;
 import meigo.dbettermodel.services.ModelService;
 import meigo.dbettermodel.util.DBMDebug;
+import meigo.dbettermodel.util.DBMProfiler;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
 
@@ -31,13 +41,13 @@ public class BMStateCommand extends AbstractCommand {
 
     public BMStateCommand() {
         setName("bmstate");
-        setSyntax("bmstate entity:<entity> model:<model> state:<animation> (bones:<list>) (loop:<once|loop|hold>) (speed:<#.#>) (lerp_duration:<duration>) (for_players:<list_of_players>) (remove)");
+        setSyntax("bmstate entity:<entity>|... model:<model> state:<animation> (bones:<list>) (loop:<once|loop|hold>) (speed:<#.#>) (speed_channel:<name>) (lerp_duration:<duration>) (for_players:<list_of_players>) (shared) (remove)");
         autoCompile();
     }
 
     // <--[command]
     // @Name BMState
-    // @Syntax bmstate entity:<entity> model:<model> state:<animation> (bones:<list>) (loop:<once|loop|hold>) (speed:<#.#>) (lerp_duration:<duration>) (for_players:<list_of_players>) (remove)
+    // @Syntax bmstate entity:<entity>|... model:<model> state:<animation> (bones:<list>) (loop:<once|loop|hold>) (speed:<#.#>) (speed_channel:<name>) (lerp_duration:<duration>) (for_players:<list_of_players>) (shared) (remove)
     // @Required 3
     // @Short Plays or stops a layered animation state on a model, with per-player and per-bone control.
     // @Group DBetterModel
@@ -46,10 +56,24 @@ public class BMStateCommand extends AbstractCommand {
     // Plays or stops an animation state on a specific model attached to an entity.
     // This command supports multiple concurrent animations by allowing you to apply animations to specific parts of the model.
     //
+    // The 'entity' argument accepts a list of entities. The animation settings are built once and applied to the model on every listed entity,
+    // which is much cheaper than running the command once per entity. Entities without the model are skipped and counted in the debug summary.
+    //
     // The 'bones' argument is an optional list of bone names to which this animation should be applied.
     // If not provided, the animation applies to the entire model. This is the key to layering animations.
     //
     // The 'for_players' argument is an optional list of players. If provided, the animation will only be visible to those players. This uses the official BetterModel API for per-player animations.
+    // The list is resolved once per command and duplicate players are ignored. If none of the listed players are online, the animation is not played at all.
+    //
+    // The 'shared' argument can be used with 'for_players' for cinematic scenes with many viewers.
+    // If every player currently viewing a model is in the list, a single animation is played for the whole model instead of one per player.
+    // Note that players who start viewing the model while that animation is running will see it too.
+    //
+    // The 'speed' argument sets a fixed playback speed, which is read once when the command runs.
+    //
+    // The 'speed_channel' argument binds the playback speed to a named speed channel of the model instead.
+    // The animation then follows the channel's current value while it plays, which can be changed at any time with the 'animation_speed' mechanism of BMModelTag.
+    // If the channel has not been set on a model yet, it starts at the 'speed' value.
     //
     // The 'lerp_duration' argument (previously lerp_frames) now accepts a DurationTag for smoother transitions.
     //
@@ -62,57 +86,158 @@ public class BMStateCommand extends AbstractCommand {
     // @Usage
     // # Make the robot wave, but only player_1 and player_2 can see it.
     // - bmstate entity:<context.entity> model:robot state:wave for_players:<[player_1]>|<[player_2]>
+    //
+    // @Usage
+    // # Play a 'run' animation whose speed follows the horse's 'gait' speed channel.
+    // - bmstate entity:<[horse]> model:horse state:run loop:loop speed_channel:gait
+    // - adjust <[horse].bm_model[horse]> animation_speed:[gait=1.6]
+    //
+    // @Usage
+    // # Play a cutscene animation for everyone in the theater, as a single shared animation where possible.
+    // - bmstate entity:<[actor]> model:actor state:bow for_players:<[theater_players]> shared
+    //
+    // @Usage
+    // # Start a looping 'stampede' animation on every bull in the arena at once.
+    // - bmstate entity:<[arena_bulls]> model:bull state:stampede loop:loop
     // -->
 
     public static void autoExecute(ScriptEntry scriptEntry,
-                                   @ArgName("entity") @ArgPrefixed EntityTag entityTag,
+                                   @ArgName("entity") @ArgPrefixed @ArgSubType(EntityTag.class) List<EntityTag> entities,
                                    @ArgName("model") @ArgPrefixed ElementTag modelName,
                                    @ArgName("state") @ArgPrefixed ElementTag animName,
                                    @ArgName("bones") @ArgPrefixed @ArgDefaultNull ListTag bones,
                                    @ArgName("loop") @ArgDefaultText("once") @ArgPrefixed ElementTag loopMode,
                                    @ArgName("speed") @ArgDefaultText("1.0") @ArgPrefixed ElementTag speedTag,
+                                   @ArgName("speed_channel") @ArgPrefixed @ArgDefaultNull ElementTag speedChannel,
                                    @ArgName("lerp_duration") @ArgDefaultText("1t") @ArgPrefixed DurationTag lerpDuration,
                                    @ArgName("for_players") @ArgPrefixed @ArgDefaultNull ListTag forPlayers,
+                                   @ArgName("shared") boolean shared,
                                    @ArgName("remove") boolean remove) {
-        Entity entity = entityTag.getBukkitEntity();
-        BetterModel.registry(entity).ifPresentOrElse(registry -> {
-            var tracker = registry.tracker(modelName.asString());
-            if (tracker == null) {
-                DBMDebug.error(scriptEntry, "Model '" + modelName.asString() + "' not found on entity " + entity.getUniqueId() + ".");
+        DBMProfiler.command("bmstate", () -> run(scriptEntry, entities, modelName, animName, bones, loopMode, speedTag, speedChannel, lerpDuration, forPlayers, shared, remove));
+    }
+
+    private static void run(ScriptEntry scriptEntry,
+                            List<EntityTag> entities,
+                            ElementTag modelName,
+                            ElementTag animName,
+                            ListTag bones,
+                            ElementTag loopMode,
+                            ElementTag speedTag,
+                            ElementTag speedChannel,
+                            DurationTag lerpDuration,
+                            ListTag forPlayers,
+                            boolean shared,
+                            boolean remove) {
+        String model = modelName.asString();
+        String animation = animName.asString();
+        Predicate<RenderedBone> boneFilter = (bone) -> true;
+        if (bones != null) {
+            final Set<String> boneNames = new HashSet<>(bones);
+            boneFilter = (bone) -> boneNames.contains(bone.name().name());
+        }
+
+        AnimationIterator.Type type = null;
+        float speed = 1f;
+        String channel = null;
+        AnimationFanout fanout = null;
+        if (!remove) {
+            type = switch (loopMode.asString().toLowerCase().trim()) {
+                case "loop" -> AnimationIterator.Type.LOOP;
+                case "hold" -> AnimationIterator.Type.HOLD_ON_LAST;
+                default -> AnimationIterator.Type.PLAY_ONCE;
+            };
+            if (!speedTag.isFloat()) {
+                DBMDebug.error(scriptEntry, "Invalid speed '" + speedTag + "', must be a number.");
                 return;
             }
-            String animation = animName.asString();
-            Predicate<RenderedBone> boneFilter = (bone) -> true;
-            if (bones!= null) {
-                final Set<String> boneNames = new HashSet<>(bones);
-                boneFilter = (bone) -> boneNames.contains(bone.name().name());
+            speed = speedTag.asFloat();
+            if (speedChannel != null) {
+                channel = CoreUtilities.toLowerCase(speedChannel.asString());
             }
+            List<Player> viewers = null;
+            if (forPlayers != null) {
+                viewers = new ArrayList<>(forPlayers.size());
+                for (PlayerTag player : forPlayers.filter(PlayerTag.class, scriptEntry.getContext())) {
+                    viewers.add(player.getPlayerEntity());
+                }
+            }
+            fanout = new AnimationFanout(createModifier(lerpDuration.getTicksAsInt(), type, speed, null), viewers, shared);
+            if (fanout.isShownToNobody()) {
+                DBMDebug.approval(scriptEntry, "None of the players in 'for_players' are online, so animation '" + animation + "' was not started.");
+                return;
+            }
+        }
 
+        ModelService service = ModelService.getInstance();
+        ModelBackend backend = service.getBackend();
+        int applied = 0;
+        int missing = 0;
+        for (EntityTag entityTag : entities) {
+            Entity entity = entityTag.getBukkitEntity();
+            EntityTracker tracker = entity != null ? backend.tracker(entity.getUniqueId(), model) : null;
+            if (tracker == null) {
+                missing++;
+                continue;
+            }
             if (remove) {
                 if (tracker.stopAnimation(boneFilter, animation)) {
-                    DBMDebug.approval(scriptEntry, "Stopped animation '" + animation + "' on model '" + modelName.asString() + "'.");
+                    applied++;
+                }
+            } else {
+                if (channel == null) {
+                    fanout.play(tracker, bone -> true, animation);
                 } else {
-                    DBMDebug.error(scriptEntry, "Animation '" + animation + "' was not running on the specified parts of model '" + modelName.asString() + "'.");
+                    AnimationSpeed dynamicSpeed = service.getAnimationSpeed(tracker, channel, speed);
+                    fanout.play(tracker, bone -> true, animation, createModifier(lerpDuration.getTicksAsInt(), type, speed, dynamicSpeed));
                 }
-                return;
+                applied++;
             }
+        }
 
-            AnimationIterator.Type type = switch (loopMode.asString().toLowerCase().trim()) {
-                case "loop" -> AnimationIterator.Type.LOOP;
-                case "hold" -> AnimationIterator.Type.HOLD_ON_LAST;
-                default -> AnimationIterator.Type.PLAY_ONCE;
-            };
+        if (entities.size() == 1) {
+            reportSingle(scriptEntry, entities.get(0), model, animation, remove, applied, missing);
+            return;
+        }
+        if (applied == 0) {
+            DBMDebug.error(scriptEntry, (remove ? "Animation '" + animation + "' was not running on any of the " : "Could not start animation '" + animation + "' on any of the ")
+                    + entities.size() + " entities (" + missing + " without model '" + model + "').");
+            return;
+        }
+        DBMDebug.approval(scriptEntry, (remove ? "Stopped" : "Started") + " animation '" + animation + "' on model '" + model + "' for "
+                + applied + " of " + entities.size() + " entities (" + missing + " without the model).");
+    }
 
-            AnimationModifier.Builder builder = AnimationModifier.builder()
-                    .start(lerpDuration.getTicksAsInt())
+    private static AnimationModifier createModifier(int lerpTicks, AnimationIterator.Type type, float speed, AnimationSpeed dynamicSpeed) {
+        if (dynamicSpeed == null) {
+            return AnimationModifier.builder()
+                    .start(lerpTicks)
                     .type(type)
-                    .speed(speedTag::asFloat)
-                    .override(false);
-
-            ModelService.getInstance().playAnimationForPlayers(tracker, animation, builder.build(), forPlayers);
-
-            DBMDebug.approval(scriptEntry, "Started animation '" + animation + "' on model '" + modelName.asString() + "'.");
+                    .speed(speed)
+                    .override(false)
+                    .build();
+        }
+        return AnimationModifier.builder()
+                .start(lerpTicks)
+                .type(type)
+                .speed(dynamicSpeed::get)
+                .override(false)
+                .build();
+    }
 
-        }, () -> DBMDebug.error(scriptEntry, "The entity does not have any BetterModel models attached."));
+    private static void reportSingle(ScriptEntry scriptEntry, EntityTag entityTag, String model, String animation, boolean remove, int applied, int missing) {
+        if (missing > 0) {
+            Entity entity = entityTag.getBukkitEntity();
+            if (entity == null || ModelService.getInstance().getBackend().trackers(entity.getUniqueId()).isEmpty()) {
+                DBMDebug.error(scriptEntry, "The entity does not have any BetterModel models attached.");
+            } else {
+                DBMDebug.error(scriptEntry, "Model '" + model + "' not found on entity " + entity.getUniqueId() + ".");
+            }
+        } else if (remove && applied == 0) {
+            DBMDebug.error(scriptEntry, "Animation '" + animation + "' was not running on the specified parts of model '" + model + "'.");
+        } else if (remove) {
+            DBMDebug.approval(scriptEntry, "Stopped animation '" + animation + "' on model '" + model + "'.");
+        } else {
+            DBMDebug.approval(scriptEntry, "Started animation '" + animation + "' on model '" + model + "'.");
+        }
     }
 }
\ No newline at end of file
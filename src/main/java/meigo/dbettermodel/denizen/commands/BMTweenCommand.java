@@ -0,0 +1,203 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.denizen.commands;
+
+import com.denizenscript.denizen.objects.LocationTag;
+import com.denizenscript.denizencore.objects.core.DurationTag;
+import com.denizenscript.denizencore.objects.core.ElementTag;
+import com.denizenscript.denizencore.objects.core.QuaternionTag;
+import com.denizenscript.denizencore.scripts.ScriptEntry;
+import com.denizenscript.denizencore.scripts.commands.AbstractCommand;
+import com.denizenscript.denizencore.scripts.commands.generator.ArgDefaultNull;
+import com.denizenscript.denizencore.scripts.commands.generator.ArgDefaultText;
+import com.denizenscript.denizencore.scripts.commands.generator.ArgName;
+import com.denizenscript.denizencore.scripts.commands.generator.ArgPrefixed;
+import com.denizenscript.denizencore.scripts.commands.generator.ArgSubType;
+import meigo.dbettermodel.denizen.objects.BMBoneTag;
+import meigo.dbettermodel.denizen.objects.BMModelTag;
+import meigo.dbettermodel.services.Easing;
+import meigo.dbettermodel.services.ModelService;
+import meigo.dbettermodel.services.TweenService;
+import meigo.dbettermodel.util.DBMDebug;
+import meigo.dbettermodel.util.DBMProfiler;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+public class BMTweenCommand extends AbstractCommand {
+
+    public BMTweenCommand() {
+        setName("bmtween");
+        setSyntax("bmtween [bones:<bmbone>|.../model:<bmmodel>] [property:<rotate/offset/scale/tint>] [to:<value>] (duration:<duration>) (easing:<easing>) (stop)");
+        autoCompile();
+    }
+
+    // <--[command]
+    // @Name BMTween
+    // @Syntax bmtween [bones:<bmbone>|.../model:<bmmodel>] [property:<rotate/offset/scale/tint>] [to:<value>] (duration:<duration>) (easing:<easing>) (stop)
+    // @Required 2
+    // @Short Smoothly changes the rotation, offset, scale or tint of bones over time.
+    // @Group DBetterModel
+    //
+    // @Description
+    // Moves a bone property from its current value to a new one over the given duration (default 1s), without running a script every tick.
+    // All running tweens are stepped natively once per tick.
+    //
+    // Use 'bones' for a list of BMBoneTags, or 'model' to tween every bone of a model.
+    //
+    // The 'property' decides what the 'to' value must be, matching the bone mechanism of the same name:
+    // 'rotate' takes a QuaternionTag, 'offset' and 'scale' take a LocationTag vector, and 'tint' takes an integer RGB color.
+    //
+    // The 'easing' can be one of: linear, in_sine, out_sine, in_out_sine, in_quad, out_quad, in_out_quad,
+    // in_cubic, out_cubic, in_out_cubic, out_back, out_bounce.
+    //
+    // A bone runs only one tween per property. Starting a new tween, or setting the property with its mechanism, replaces the running one.
+    //
+    // Use 'stop' to stop tweens where they are. With a 'property', only tweens of that property are stopped.
+    //
+    // @Tags
+    // <BMModelTag.bone[<name>]>
+    //
+    // @Usage
+    // Use to open a door over half a second.
+    // - bmtween bones:<[door].bm_model[door].bone[hinge]> property:rotate to:<location[0,1,0].to_axis_angle_quaternion[<util.pi.div[2]>]> duration:10t easing:out_cubic
+    //
+    // @Usage
+    // Use to make a whole model flash red and back.
+    // - bmtween model:<[boss].bm_model[boss]> property:tint to:16711680 duration:5t
+    // - wait 5t
+    // - bmtween model:<[boss].bm_model[boss]> property:tint to:16777215 duration:5t
+    //
+    // @Usage
+    // Use to stop every tween of a bone.
+    // - bmtween bones:<[bone]> stop
+    // -->
+
+    @Override
+    public void addCustomTabCompletions(TabCompletionsBuilder tab) {
+        tab.addWithPrefix("property:", Arrays.stream(TweenService.Property.values()).map(p -> p.name().toLowerCase(Locale.ROOT)).toList());
+        tab.addWithPrefix("easing:", Arrays.stream(Easing.values()).map(e -> e.name().toLowerCase(Locale.ROOT)).toList());
+    }
+
+    public static void autoExecute(ScriptEntry scriptEntry,
+                                   @ArgName("bones") @ArgPrefixed @ArgDefaultNull @ArgSubType(BMBoneTag.class) List<BMBoneTag> bones,
+                                   @ArgName("model") @ArgPrefixed @ArgDefaultNull BMModelTag model,
+                                   @ArgName("property") @ArgPrefixed @ArgDefaultNull ElementTag propertyName,
+                                   @ArgName("to") @ArgPrefixed @ArgDefaultNull ElementTag to,
+                                   @ArgName("duration") @ArgPrefixed @ArgDefaultText("1s") DurationTag duration,
+                                   @ArgName("easing") @ArgPrefixed @ArgDefaultText("linear") ElementTag easingName,
+                                   @ArgName("stop") boolean stop) {
+        DBMProfiler.command("bmtween", () -> run(scriptEntry, bones, model, propertyName, to, duration, easingName, stop));
+    }
+
+    private static void run(ScriptEntry scriptEntry,
+                            List<BMBoneTag> bones,
+                            BMModelTag model,
+                            ElementTag propertyName,
+                            ElementTag to,
+                            DurationTag duration,
+                            ElementTag easingName,
+                            boolean stop) {
+        if (bones == null && model == null) {
+            DBMDebug.error(scriptEntry, "You must specify either 'bones' or 'model'.");
+            return;
+        }
+        TweenService.Property property = null;
+        if (propertyName != null) {
+            property = TweenService.Property.byName(propertyName.asString());
+            if (property == null) {
+                DBMDebug.error(scriptEntry, "Invalid property '" + propertyName + "', must be rotate, offset, scale or tint.");
+                return;
+            }
+        }
+        ModelService service = ModelService.getInstance();
+
+        if (stop) {
+            int stopped = 0;
+            if (model != null) {
+                stopped += service.stopTween(model.getTracker(), property);
+            }
+            if (bones != null) {
+                for (BMBoneTag bone : bones) {
+                    if (service.stopTween(bone, property)) {
+                        stopped++;
+                    }
+                }
+            }
+            DBMDebug.approval(scriptEntry, "Stopped tweens on " + stopped + " bone(s).");
+            return;
+        }
+
+        if (property == null || to == null) {
+            DBMDebug.error(scriptEntry, "You must specify a 'property' and a 'to' value.");
+            return;
+        }
+        Easing easing = Easing.byName(easingName.asString());
+        if (easing == null) {
+            DBMDebug.error(scriptEntry, "Invalid easing '" + easingName + "'.");
+            return;
+        }
+        TweenService.Spec spec = parseSpec(scriptEntry, property, to, duration.getTicksAsInt(), easing);
+        if (spec == null) {
+            return;
+        }
+
+        int started = 0;
+        int missing = 0;
+        if (model != null) {
+            started += service.startTween(model.getTracker(), spec);
+        }
+        if (bones != null) {
+            for (BMBoneTag bone : bones) {
+                if (service.startTween(bone, spec)) {
+                    started++;
+                } else {
+                    missing++;
+                }
+            }
+        }
+        if (missing > 0) {
+            DBMDebug.approval(scriptEntry, "Started '" + propertyName + "' tween on " + started + " bone(s), skipped " + missing + " missing bone(s).");
+        } else {
+            DBMDebug.approval(scriptEntry, "Started '" + propertyName + "' tween on " + started + " bone(s).");
+        }
+    }
+
+    private static TweenService.Spec parseSpec(ScriptEntry scriptEntry, TweenService.Property property, ElementTag to, int ticks, Easing easing) {
+        switch (property) {
+            case ROTATE -> {
+                QuaternionTag quat = to.asType(QuaternionTag.class, scriptEntry.getContext());
+                if (quat == null) {
+                    DBMDebug.error(scriptEntry, "The 'rotate' property requires a QuaternionTag.");
+                    return null;
+                }
+                return TweenService.Spec.rotate(new Quaternionf(quat.x, quat.y, quat.z, quat.w), ticks, easing);
+            }
+            case OFFSET, SCALE -> {
+                LocationTag loc = to.asType(LocationTag.class, scriptEntry.getContext());
+                if (loc == null) {
+                    DBMDebug.error(scriptEntry, "The '" + property.name().toLowerCase(Locale.ROOT) + "' property requires a LocationTag.");
+                    return null;
+                }
+                Vector3f vector = new Vector3f((float) loc.getX(), (float) loc.getY(), (float) loc.getZ());
+                return property == TweenService.Property.OFFSET
+                        ? TweenService.Spec.offset(vector, ticks, easing)
+                        : TweenService.Spec.scale(vector, ticks, easing);
+            }
+            case TINT -> {
+                if (!to.isInt()) {
+                    DBMDebug.error(scriptEntry, "The 'tint' property requires an integer color.");
+                    return null;
+                }
+                return TweenService.Spec.tint(to.asInt(), ticks, easing);
+            }
+        }
+        return null;
+    }
+}
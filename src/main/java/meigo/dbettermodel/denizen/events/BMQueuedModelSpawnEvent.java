@@ -0,0 +1,77 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.denizen.events;
+
+import com.denizenscript.denizen.events.BukkitScriptEvent;
+import com.denizenscript.denizen.objects.EntityTag;
+import com.denizenscript.denizencore.objects.ObjectTag;
+import com.denizenscript.denizencore.objects.core.DurationTag;
+import com.denizenscript.denizencore.objects.core.ElementTag;
+import com.denizenscript.denizencore.utilities.CoreUtilities;
+import meigo.dbettermodel.denizen.objects.BMModelTag;
+import meigo.dbettermodel.events.QueuedModelSpawnEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+
+public class BMQueuedModelSpawnEvent extends BukkitScriptEvent implements Listener {
+
+    // <--[event]
+    // @Events
+    // bm queued model spawns
+    //
+    // @Group DBetterModel
+    //
+    // @Switch model:<name> to only process the event for a specific model name.
+    //
+    // @Cancellable false
+    //
+    // @Triggers when a model queued with 'bmmodel ... queue' leaves the queue, including when it is cancelled or its entity unloads. See <@link command BMModel>.
+    //
+    // @Context
+    // <context.entity> returns the EntityTag the model was queued for, if it still exists.
+    // <context.model_name> returns the name of the queued model.
+    // <context.model> returns the created BMModelTag, or the existing one if the entity already had the model.
+    // <context.success> returns whether the entity now has the model.
+    // <context.reason> returns why the model left the queue: 'created', 'existing' if the entity already had the model, 'failed' if the entity
+    // no longer exists or the model renderer was removed, 'cancelled' if the model was removed or created directly first, or 'unloaded' if the entity unloaded.
+    // <context.waited> returns a DurationTag of how long the model waited in the queue.
+    //
+    // -->
+
+    public BMQueuedModelSpawnEvent() {
+        registerCouldMatcher("bm queued model spawns");
+        registerSwitches("model");
+    }
+
+    private QueuedModelSpawnEvent event;
+
+    @Override
+    public boolean matches(ScriptPath path) {
+        if (!runGenericSwitchCheck(path, "model", event.getModelName())) {
+            return false;
+        }
+        return super.matches(path);
+    }
+
+    @Override
+    public ObjectTag getContext(String name) {
+        return switch (name) {
+            case "entity" -> event.getEntity() != null ? new EntityTag(event.getEntity()) : null;
+            case "model_name" -> new ElementTag(event.getModelName());
+            case "model" -> event.getTracker() != null ? new BMModelTag(event.getTracker()) : null;
+            case "success" -> new ElementTag(event.isSuccess());
+            case "reason" -> new ElementTag(CoreUtilities.toLowerCase(event.getReason().name()));
+            case "waited" -> new DurationTag(event.getWaitedTicks());
+            default -> super.getContext(name);
+        };
+    }
+
+    @EventHandler
+    public void onQueuedModelSpawn(QueuedModelSpawnEvent e) {
+        this.event = e;
+        fire(e);
+    }
+}
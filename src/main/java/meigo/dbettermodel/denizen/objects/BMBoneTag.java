@@ -5,8 +5,8 @@
 
 package meigo.dbettermodel.denizen.objects;
 
-import com.denizenscript.denizen.objects.EntityTag;
 import com.denizenscript.denizen.objects.LocationTag;
+import com.denizenscript.denizen.objects.PlayerTag;
 import com.denizenscript.denizencore.objects.Adjustable;
 import com.denizenscript.denizencore.objects.Fetchable;
 import com.denizenscript.denizencore.objects.Mechanism;
@@ -15,18 +15,14 @@ import com.denizenscript.denizencore.objects.core.ElementTag;
 import com.denizenscript.denizencore.tags.Attribute;
 import com.denizenscript.denizencore.tags.ObjectTagProcessor;
 import com.denizenscript.denizencore.tags.TagContext;
-import com.denizenscript.denizencore.utilities.CoreUtilities;
+import com.denizenscript.denizencore.tags.TagRunnable;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
-import kr.toxicity.model.api.BetterModel;
-import kr.toxicity.model.api.bone.RenderedBone;
 import kr.toxicity.model.api.tracker.EntityTracker;
-import kr.toxicity.model.api.tracker.EntityTrackerRegistry;
 import meigo.dbettermodel.services.ModelService;
+import meigo.dbettermodel.util.DBMProfiler;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.util.Vector;
-import org.joml.Quaternionf;
 import org.joml.Vector3f;
-import java.util.Optional;
 import java.util.UUID;
 
 public class BMBoneTag implements ObjectTag, Adjustable {
@@ -36,85 +32,124 @@ public class BMBoneTag implements ObjectTag, Adjustable {
     private final UUID entityUUID;
     private final String modelName;
     private final String boneName;
+    private final String prefix;
+    private String identity;
 
     public BMBoneTag(UUID entityUUID, String modelName, String boneName) {
+        this(entityUUID, modelName, boneName, PREFIX);
+    }
+
+    private BMBoneTag(UUID entityUUID, String modelName, String boneName, String prefix) {
         this.entityUUID = entityUUID;
         this.modelName = modelName;
         this.boneName = boneName;
+        this.prefix = prefix;
     }
 
     @Fetchable("bmbone")
     public static BMBoneTag valueOf(String string, TagContext context) {
-        if (string == null) return null;
-        String lower = CoreUtilities.toLowerCase(string);
-        if (!lower.startsWith(PREFIX + "@")) return null;
-        String body = string.substring(PREFIX.length() + 1);
-
-        String[] parts = body.split(",", 3);
-        if (parts.length < 3) return null;
-
-        EntityTag entityTag = EntityTag.valueOf(parts[0], context);
-        if (entityTag == null || entityTag.getBukkitEntity() == null) return null;
-
-        return new BMBoneTag(entityTag.getUUID(), parts[1], parts[2]);
+        if (!IdentityParser.hasPrefix(string, PREFIX)) return null;
+        int start = PREFIX.length() + 1;
+        int modelStart = string.indexOf(',', start) + 1;
+        if (modelStart == 0) return null;
+        int boneStart = string.indexOf(',', modelStart) + 1;
+        if (boneStart == 0) return null;
+
+        UUID entityUUID = IdentityParser.parseEntityUUID(string, start, modelStart - 1, context);
+        if (entityUUID == null) return null;
+        String modelName = string.substring(modelStart, boneStart - 1);
+        String boneName = string.substring(boneStart);
+
+        ModelService service = ModelService.getInstance();
+        EntityTracker tracker = service.findTracker(entityUUID, modelName);
+        if (tracker != null && tracker.bone(boneName) != null) {
+            return service.getBoneTag(tracker, boneName);
+        }
+        // Bones of models that are not live are not interned, but the entity must still exist.
+        if (Bukkit.getEntity(entityUUID) == null) return null;
+        return new BMBoneTag(entityUUID, modelName, boneName);
     }
 
     public static boolean matches(String arg) {
-        return arg != null && CoreUtilities.toLowerCase(arg).startsWith(PREFIX + "@");
+        return IdentityParser.hasPrefix(arg, PREFIX);
     }
 
     public UUID getEntityUUID() { return entityUUID; }
     public String getModelName() { return modelName; }
     public String getBoneName() { return boneName; }
 
-    private String prefix = PREFIX;
     @Override public String getPrefix() { return prefix; }
-    @Override public ObjectTag setPrefix(String s) { this.prefix = s;
-        return this; }
+    // Bone tags are shared through ModelService, so a different prefix gets its own copy.
+    @Override public ObjectTag setPrefix(String s) {
+        return s.equals(prefix) ? this : new BMBoneTag(entityUUID, modelName, boneName, s);
+    }
     @Override public boolean isUnique() { return true; }
-    @Override public String identify() { return PREFIX + "@" + entityUUID + "," + modelName + "," + boneName; }
+    @Override public String identify() {
+        String id = identity;
+        if (id == null) {
+            id = PREFIX + "@" + entityUUID + "," + modelName + "," + boneName;
+            identity = id;
+        }
+        return id;
+    }
     @Override public String identifySimple() { return identify(); }
     @Override public Object getJavaObject() { return this; }
     @Override public String toString() { return identify(); }
 
     public static final ObjectTagProcessor<BMBoneTag> tagProcessor = new ObjectTagProcessor<>();
 
+    private static <R extends ObjectTag> void registerTag(Class<R> returnType, String name, TagRunnable.ObjectInterface<BMBoneTag, R> runnable) {
+        tagProcessor.registerTag(returnType, name, DBMProfiler.tag(PREFIX, name, runnable));
+    }
+
     public static void registerTags() {
-        tagProcessor.registerTag(ElementTag.class, "name", (attr, obj) -> new ElementTag(obj.boneName));
+        registerTag(ElementTag.class, "name", (attr, obj) -> new ElementTag(obj.boneName));
 
-        tagProcessor.registerTag(LocationTag.class, "world_location", (attr, obj) -> {
-            Location loc = obj.getAbsoluteLocation();
+        registerTag(LocationTag.class, "world_location", (attr, obj) -> {
+            Location loc = ModelService.getInstance().getBoneAbsoluteLocation(obj.entityUUID, obj.modelName, obj.boneName);
             return loc != null ? new LocationTag(loc) : null;
         });
 
-        tagProcessor.registerTag(LocationTag.class, "world_rotation_euler", (attr, obj) -> {
+        registerTag(LocationTag.class, "world_rotation_euler", (attr, obj) -> {
             Vector3f euler = ModelService.getInstance().getBoneWorldRotationEuler(obj.entityUUID, obj.modelName, obj.boneName);
             return euler != null ? new LocationTag(null, euler.x, euler.y, euler.z) : null;
         });
 
-        tagProcessor.registerTag(ElementTag.class, "is_visible", (attr, obj) ->
+        registerTag(ElementTag.class, "is_visible", (attr, obj) ->
                 new ElementTag(ModelService.getInstance().isBoneVisible(obj.entityUUID, obj.modelName, obj.boneName))
         );
 
-        tagProcessor.registerTag(BMModelTag.class, "bm_model", (attr, obj) ->
-                BetterModel.registry(obj.entityUUID)
-                        .flatMap(registry -> Optional.ofNullable(registry.tracker(obj.modelName)))
-                        .map(BMModelTag::new)
-                        .orElse(null)
-        );
+        registerTag(ElementTag.class, "is_visible_for", (attr, obj) -> {
+            if (!attr.hasContext(1)) {
+                attr.echoError("The is_visible_for tag must have a player specified.");
+                return null;
+            }
+            PlayerTag player = attr.contextAsType(1, PlayerTag.class);
+            if (player == null) {
+                return null;
+            }
+            ModelService service = ModelService.getInstance();
+            return new ElementTag(service.isBoneVisible(obj.entityUUID, obj.modelName, obj.boneName)
+                    && !service.getVisibility().isHiddenFrom(obj.entityUUID, obj.modelName, obj.boneName, player.getUUID()));
+        });
 
-        tagProcessor.registerTag(LocationTag.class, "local_position", (attr, obj) -> {
+        registerTag(BMModelTag.class, "bm_model", (attr, obj) -> {
+            EntityTracker tracker = ModelService.getInstance().findTracker(obj.entityUUID, obj.modelName);
+            return tracker != null ? new BMModelTag(tracker) : null;
+        });
+
+        registerTag(LocationTag.class, "local_position", (attr, obj) -> {
             Location offset = ModelService.getInstance().getBoneWorldLocation(obj.entityUUID, obj.modelName, obj.boneName);
             return offset != null ? new LocationTag(offset) : null;
         });
 
-        tagProcessor.registerTag(LocationTag.class, "global_position", (attr, obj) -> {
-            Location loc = obj.getAbsoluteLocation();
+        registerTag(LocationTag.class, "global_position", (attr, obj) -> {
+            Location loc = ModelService.getInstance().getBoneAbsoluteLocation(obj.entityUUID, obj.modelName, obj.boneName);
             return loc != null ? new LocationTag(loc) : null;
         });
 
-        tagProcessor.registerTag(LocationTag.class, "real_position", (attr, obj) -> {
-            Location loc = obj.getRealWorldLocation();
+        registerTag(LocationTag.class, "real_position", (attr, obj) -> {
+            Location loc = ModelService.getInstance().getBoneRealLocation(obj.entityUUID, obj.modelName, obj.boneName);
             return loc != null ? new LocationTag(loc) : null;
         });
 
@@ -128,6 +163,22 @@ public class BMBoneTag implements ObjectTag, Adjustable {
 
     @Override
     public void adjust(Mechanism mechanism) {
+        // <--[mechanism]
+        // @object BMBoneTag
+        // @name look_at
+        // @input MapTag
+        // @plugin DBetterModel
+        // @description
+        // Makes this bone keep turning towards a target, e.g. a turret or a head following the nearest player.
+        // The map takes a 'target' entity or location, and optionally 'max_yaw' and 'max_pitch' to limit how far the bone may turn
+        // from the model's facing (in degrees, default 180 and 90), and 'turn_speed' to limit how far it turns per tick (in degrees, default 0 for instant).
+        // Living entities are looked at by their eyes. The aim is updated natively every tick and applied on top of the bone's animation and 'rotate' value.
+        // Adjusting again changes the target and limits, turning smoothly from where the bone points now. Use 'false' to stop looking.
+        // @example
+        // - adjust <[turret].bm_model[turret].bone[barrel]> look_at:[target=<[player]>;max_yaw=60;max_pitch=30;turn_speed=5]
+        // @example
+        // - adjust <[turret].bm_model[turret].bone[barrel]> look_at:false
+        // -->
         ModelService.getInstance().adjustBone(this, mechanism);
     }
 
@@ -137,45 +188,7 @@ public class BMBoneTag implements ObjectTag, Adjustable {
     }
 
     public Location getRealWorldLocation() {
-        org.bukkit.entity.Entity bukkitEntity = org.bukkit.Bukkit.getEntity(this.entityUUID);
-        if (bukkitEntity == null) return null;
-
-        EntityTrackerRegistry registry = BetterModel.registryOrNull(bukkitEntity);
-        if (registry == null) return null;
-
-        EntityTracker tracker = null;
-        for (EntityTracker t : registry.trackers()) {
-            if (t.name().equals(this.modelName)) {
-                tracker = t;
-                break;
-            }
-        }
-        if (tracker == null) return null;
-
-        RenderedBone bone = tracker.bone(this.boneName);
-        if (bone == null) return null;
-
-        Vector3f pos = bone.worldPosition();
-        Quaternionf rot = bone.hitBoxViewRotation();
-
-        Vector3f direction = new Vector3f(0, 0, 1);
-        direction.rotate(rot);
-        Location loc = bukkitEntity.getLocation().add(pos.x, pos.y, pos.z);
-
-        loc.setDirection(new Vector(direction.x, direction.y, direction.z));
-
-        return loc;
-    }
-
-    private Location getAbsoluteLocation() {
-        Location offset = ModelService.getInstance().getBoneWorldLocation(this.entityUUID, this.modelName, this.boneName);
-        if (offset == null) return null;
-        org.bukkit.entity.Entity bukkitEntity = org.bukkit.Bukkit.getEntity(this.entityUUID);
-        if (bukkitEntity == null) return null;
-
-        Location entityLoc = bukkitEntity.getLocation();
-        Vector vec = new Vector(offset.getX(), offset.getY(), offset.getZ());
-        vec.rotateAroundY(Math.toRadians(-entityLoc.getYaw()));
-        return entityLoc.add(vec);
+        Location location = ModelService.getInstance().getBoneRealLocation(entityUUID, modelName, boneName);
+        return location != null ? location.clone() : null;
     }
 }
\ No newline at end of file
@@ -13,12 +13,14 @@ import com.denizenscript.denizencore.objects.ObjectTag;
 import com.denizenscript.denizencore.tags.Attribute;
 import com.denizenscript.denizencore.tags.ObjectTagProcessor;
 import com.denizenscript.denizencore.tags.TagContext;
+import com.denizenscript.denizencore.tags.TagRunnable;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import kr.toxicity.model.api.BetterModel;
 import kr.toxicity.model.api.entity.BaseBukkitEntity;
 import kr.toxicity.model.api.tracker.EntityTracker;
 import kr.toxicity.model.api.tracker.EntityTrackerRegistry;
+import meigo.dbettermodel.util.DBMProfiler;
 
 import java.util.Optional;
 
@@ -91,6 +93,10 @@ public class BMEntityTag implements ObjectTag, Adjustable {
 
     public static final ObjectTagProcessor<BMEntityTag> tagProcessor = new ObjectTagProcessor<>();
 
+    private static <R extends ObjectTag> void registerTag(Class<R> returnType, String name, TagRunnable.ObjectInterface<BMEntityTag, R> runnable) {
+        tagProcessor.registerTag(returnType, name, DBMProfiler.tag(PREFIX, name, runnable));
+    }
+
     public static void registerTags() {
         // <--[tag]
         // @attribute <BMEntityTag.base_entity>
@@ -99,7 +105,7 @@ public class BMEntityTag implements ObjectTag, Adjustable {
         // @description
         // Returns the base Bukkit entity.
         // -->
-        tagProcessor.registerTag(EntityTag.class, "base_entity", (attr, obj) ->
+        registerTag(EntityTag.class, "base_entity", (attr, obj) ->
                 new EntityTag(((BaseBukkitEntity) obj.getRegistry().entity()).entity())
         );
 
@@ -111,7 +117,7 @@ public class BMEntityTag implements ObjectTag, Adjustable {
         // Returns the model with the specified name on the entity.
         // If no name is provided, returns the first model loaded on the entity.
         // -->
-        tagProcessor.registerTag(BMModelTag.class, "model", (attr, obj) -> {
+        registerTag(BMModelTag.class, "model", (attr, obj) -> {
             EntityTracker tracker;
             if (attr.hasContext(1)) {
                 String modelName = attr.getContext(1);
@@ -17,14 +17,17 @@ import com.denizenscript.denizencore.objects.core.MapTag;
 import com.denizenscript.denizencore.tags.Attribute;
 import com.denizenscript.denizencore.tags.ObjectTagProcessor;
 import com.denizenscript.denizencore.tags.TagContext;
+import com.denizenscript.denizencore.tags.TagRunnable;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
+import com.denizenscript.denizencore.utilities.text.StringHolder;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
-import kr.toxicity.model.api.BetterModel;
-import kr.toxicity.model.api.bone.RenderedBone;
 import kr.toxicity.model.api.data.renderer.ModelRenderer;
 import kr.toxicity.model.api.tracker.EntityTracker;
+import meigo.dbettermodel.services.AnimationSpeed;
 import meigo.dbettermodel.services.ModelService;
+import meigo.dbettermodel.util.DBMProfiler;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -35,25 +38,20 @@ public class BMModelTag implements ObjectTag, Adjustable {
 
     @Fetchable("bmmodel")
     public static BMModelTag valueOf(String string, TagContext context) {
-        if (string == null) return null;
-        String lower = CoreUtilities.toLowerCase(string);
-        if (!lower.startsWith(PREFIX + "@")) return null;
-        String body = string.substring(PREFIX.length() + 1);
+        if (!IdentityParser.hasPrefix(string, PREFIX)) return null;
+        int start = PREFIX.length() + 1;
+        int modelStart = string.indexOf(',', start) + 1;
+        if (modelStart == 0) return null;
 
-        String[] parts = body.split(",", 2);
-        if (parts.length < 2) return null;
+        UUID entityUUID = IdentityParser.parseEntityUUID(string, start, modelStart - 1, context);
+        if (entityUUID == null) return null;
 
-        EntityTag entityTag = EntityTag.valueOf(parts[0], context);
-        if (entityTag == null || entityTag.getBukkitEntity() == null) return null;
-
-        return BetterModel.registry(entityTag.getBukkitEntity())
-                .map(registry -> registry.tracker(parts[1]))
-                .map(BMModelTag::new)
-                .orElse(null);
+        EntityTracker tracker = ModelService.getInstance().findTracker(entityUUID, string.substring(modelStart));
+        return tracker != null ? new BMModelTag(tracker) : null;
     }
 
     public static boolean matches(String arg) {
-        return arg != null && CoreUtilities.toLowerCase(arg).startsWith(PREFIX + "@");
+        return IdentityParser.hasPrefix(arg, PREFIX);
     }
 
     private final EntityTracker tracker;
@@ -76,6 +74,10 @@ public class BMModelTag implements ObjectTag, Adjustable {
 
     public static final ObjectTagProcessor<BMModelTag> tagProcessor = new ObjectTagProcessor<>();
 
+    private static <R extends ObjectTag> void registerTag(Class<R> returnType, String name, TagRunnable.ObjectInterface<BMModelTag, R> runnable) {
+        tagProcessor.registerTag(returnType, name, DBMProfiler.tag(PREFIX, name, runnable));
+    }
+
     public static void registerTags() {
 
         EntityTag.tagProcessor.registerTag(BMModelTag.class, "bm_model", (attr, obj) -> {
@@ -83,11 +85,8 @@ public class BMModelTag implements ObjectTag, Adjustable {
                 attr.echoError("The bm_model tag must specify a model name!");
                 return null;
             }
-            String modelName = attr.getContext(1);
-            return BetterModel.registry(obj.getBukkitEntity())
-                    .map(registry -> registry.tracker(modelName))
-                    .map(BMModelTag::new)
-                    .orElse(null);
+            EntityTracker tracker = ModelService.getInstance().findTracker(obj.getUUID(), attr.getContext(1));
+            return tracker != null ? new BMModelTag(tracker) : null;
         });
 
         // <--[tag]
@@ -97,7 +96,7 @@ public class BMModelTag implements ObjectTag, Adjustable {
         // @description
         // Returns the parent BMEntityTag of this model.
         // -->
-        tagProcessor.registerTag(BMEntityTag.class, "bm_entity", (attr, obj) ->
+        registerTag(BMEntityTag.class, "bm_entity", (attr, obj) ->
                 new BMEntityTag(obj.getTracker().registry())
         );
 
@@ -108,29 +107,47 @@ public class BMModelTag implements ObjectTag, Adjustable {
         // @description
         // Returns the name of the model.
         // -->
-        tagProcessor.registerTag(ElementTag.class, "name", (attr, obj) ->
+        registerTag(ElementTag.class, "name", (attr, obj) ->
                 new ElementTag(obj.getTracker().name())
         );
 
-        tagProcessor.registerTag(MapTag.class, "bones", (attr, obj) -> {
-            MapTag map = new MapTag();
-            UUID uuid = obj.getTracker().registry().uuid();
-            String modelName = obj.getTracker().name();
-            for (RenderedBone bone : obj.getTracker().bones()) {
-                map.putObject(bone.name().name(), new BMBoneTag(uuid, modelName, bone.name().name()));
-            }
-            return map;
-        });
+        // <--[tag]
+        // @attribute <BMModelTag.bones>
+        // @returns MapTag(BMBoneTag)
+        // @plugin DBetterModel
+        // @description
+        // Returns a map of every bone of the model, keyed by bone name.
+        // The map is built once per model, so reading it repeatedly is cheap.
+        // -->
+        registerTag(MapTag.class, "bones", (attr, obj) -> getBonesMap(obj.getTracker()));
 
-        tagProcessor.registerTag(BMBoneTag.class, "bone", (attr, obj) -> {
+        registerTag(BMBoneTag.class, "bone", (attr, obj) -> {
             if (!attr.hasContext(1)) return null;
             String boneName = attr.getContext(1);
             return Optional.ofNullable(obj.getTracker().bone(boneName))
-                    .map(bone -> new BMBoneTag(obj.getTracker().registry().uuid(), obj.getTracker().name(), bone.name().name()))
+                    .map(bone -> ModelService.getInstance().getBoneTag(obj.getTracker(), bone.name().name()))
                     .orElse(null);
         });
 
-        tagProcessor.registerTag(DurationTag.class, "get_animation_duration", (attr, obj) -> {
+        // <--[tag]
+        // @attribute <BMModelTag.animation_speed[<channel>]>
+        // @returns ElementTag(Decimal)
+        // @plugin DBetterModel
+        // @mechanism BMModelTag.animation_speed
+        // @description
+        // Returns the current value of a named animation speed channel of this model, or null if the channel was never set or bound.
+        // See <@link command BMState> for binding an animation to a speed channel.
+        // -->
+        registerTag(ElementTag.class, "animation_speed", (attr, obj) -> {
+            if (!attr.hasContext(1)) {
+                attr.echoError("The animation_speed tag must have a channel name specified.");
+                return null;
+            }
+            AnimationSpeed speed = ModelService.getInstance().findAnimationSpeed(obj.getTracker(), CoreUtilities.toLowerCase(attr.getContext(1)));
+            return speed != null ? new ElementTag(speed.get()) : null;
+        });
+
+        registerTag(DurationTag.class, "get_animation_duration", (attr, obj) -> {
             if (!attr.hasContext(1)) {
                 attr.echoError("The get_animation_duration tag must have an animation name specified.");
                 return null;
@@ -141,7 +158,7 @@ public class BMModelTag implements ObjectTag, Adjustable {
                     .orElse(null);
         });
 
-        tagProcessor.registerTag(ListTag.class, "animations", (attr, obj) -> {
+        registerTag(ListTag.class, "animations", (attr, obj) -> {
             ModelRenderer renderer = obj.getTracker().getPipeline().getParent();
             if (renderer == null) {
                 attr.echoError("Could not retrieve model renderer for " + obj.identify());
@@ -152,6 +169,10 @@ public class BMModelTag implements ObjectTag, Adjustable {
         });
     }
 
+    public static MapTag getBonesMap(EntityTracker tracker) {
+        return ModelService.getInstance().getBonesMap(tracker);
+    }
+
     @Override
     public ObjectTag getObjectAttribute(Attribute attribute) {
         return tagProcessor.getObjectAttribute(this, attribute);
@@ -164,11 +185,32 @@ public class BMModelTag implements ObjectTag, Adjustable {
                 tracker.forceUpdate(true);
             }
         }
-        tagProcessor.processMechanism(this, mechanism);
-        for (RenderedBone bone : tracker.bones()) {
-            BMBoneTag boneTag = new BMBoneTag(tracker.registry().uuid(), tracker.name(), bone.name().name());
-            ModelService.getInstance().adjustBone(boneTag, mechanism);
+        // <--[mechanism]
+        // @object BMModelTag
+        // @name animation_speed
+        // @input MapTag
+        // @plugin DBetterModel
+        // @description
+        // Sets named animation speed channels of this model, as a map of channel name to speed.
+        // Animations started with bmstate's 'speed_channel' argument follow the new speed immediately, without restarting.
+        // @tags
+        // <BMModelTag.animation_speed[<channel>]>
+        // @example
+        // - adjust <[horse].bm_model[horse]> animation_speed:[gait=1.6]
+        // -->
+        if (mechanism.matches("animation_speed") && mechanism.requireObject(MapTag.class)) {
+            MapTag speeds = mechanism.valueAsType(MapTag.class);
+            for (Map.Entry<StringHolder, ObjectTag> entry : speeds.entrySet()) {
+                ElementTag speed = entry.getValue().asElement();
+                if (!speed.isFloat()) {
+                    mechanism.echoError("Invalid speed '" + speed + "' for channel '" + entry.getKey().str + "', must be a number.");
+                    continue;
+                }
+                ModelService.getInstance().setAnimationSpeed(tracker, entry.getKey().low, speed.asFloat());
+            }
         }
+        tagProcessor.processMechanism(this, mechanism);
+        ModelService.getInstance().adjustModel(tracker, mechanism);
     }
 
     @Override
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.denizen.objects;
+
+import com.denizenscript.denizen.objects.EntityTag;
+import com.denizenscript.denizencore.tags.TagContext;
+import org.bukkit.entity.Entity;
+
+import java.util.UUID;
+
+/**
+ * Parsing helpers for the 'bmmodel@' and 'bmbone@' identities.
+ * Works on index ranges of the input, so parsing a stored identity does not lowercase, split or copy it.
+ * Entities written as a raw UUID (the form the tags identify as) are read directly,
+ * and anything else falls back to {@link EntityTag#valueOf}.
+ */
+final class IdentityParser {
+
+    private IdentityParser() {}
+
+    /**
+     * @return Whether the string starts with the prefix followed by '@', ignoring case.
+     */
+    static boolean hasPrefix(String string, String prefix) {
+        int length = prefix.length();
+        return string != null && string.length() > length
+                && string.charAt(length) == '@'
+                && string.regionMatches(true, 0, prefix, 0, length);
+    }
+
+    /**
+     * Reads the entity UUID of an identity, from start (inclusive) to end (exclusive).
+     * Accepts a raw UUID, 'e@' or 'p@' followed by a UUID, or anything EntityTag can parse.
+     *
+     * @return The entity UUID, or null if it could not be parsed.
+     */
+    static UUID parseEntityUUID(String string, int start, int end, TagContext context) {
+        UUID uuid = parseUUID(string, start, end);
+        if (uuid != null) {
+            return uuid;
+        }
+        if (end - start == 38 && string.charAt(start + 1) == '@') {
+            char type = string.charAt(start);
+            if (type == 'e' || type == 'E' || type == 'p' || type == 'P') {
+                uuid = parseUUID(string, start + 2, end);
+                if (uuid != null) {
+                    return uuid;
+                }
+            }
+        }
+        EntityTag entityTag = EntityTag.valueOf(string.substring(start, end), context);
+        if (entityTag == null) {
+            return null;
+        }
+        Entity entity = entityTag.getBukkitEntity();
+        return entity != null ? entity.getUniqueId() : null;
+    }
+
+    /**
+     * Parses a UUID in its standard 36 character form without allocating intermediate strings.
+     *
+     * @return The UUID, or null if the range is not a valid UUID.
+     */
+    static UUID parseUUID(String string, int start, int end) {
+        if (end - start != 36) {
+            return null;
+        }
+        long most = 0;
+        long least = 0;
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            char c = string.charAt(i);
+            int offset = i - start;
+            if (offset == 8 || offset == 13 || offset == 18 || offset == 23) {
+                if (c != '-') {
+                    return null;
+                }
+                continue;
+            }
+            int value = hexValue(c);
+            if (value < 0) {
+                return null;
+            }
+            if (digits < 16) {
+                most = (most << 4) | value;
+            } else {
+                least = (least << 4) | value;
+            }
+            digits++;
+        }
+        return new UUID(most, least);
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+}
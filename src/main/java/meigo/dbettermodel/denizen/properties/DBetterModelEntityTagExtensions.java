@@ -7,7 +7,9 @@ package meigo.dbettermodel.denizen.properties;
 
 import com.denizenscript.denizen.objects.EntityTag;
 import kr.toxicity.model.api.BetterModel;
+import meigo.dbettermodel.denizen.objects.BMBoneTag;
 import meigo.dbettermodel.denizen.objects.BMEntityTag;
+import meigo.dbettermodel.services.ModelService;
 
 public class DBetterModelEntityTagExtensions {
 
@@ -26,5 +28,17 @@ public class DBetterModelEntityTagExtensions {
                         .map(BMEntityTag::new)
                         .orElse(null)
         );
+
+        // <--[tag]
+        // @attribute <EntityTag.bm_following>
+        // @returns BMBoneTag
+        // @plugin DBetterModel
+        // @description
+        // Returns the bone this entity follows, as set by <@link command bmfollow>.
+        // Returns null if the entity does not follow a bone.
+        // -->
+        EntityTag.tagProcessor.registerTag(BMBoneTag.class, "bm_following", (attribute, entity) ->
+                ModelService.getInstance().getFollowers().getFollowedBone(entity.getUUID())
+        );
     }
 }
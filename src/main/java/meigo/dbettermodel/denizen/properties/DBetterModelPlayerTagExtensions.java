@@ -9,21 +9,15 @@ import com.denizenscript.denizen.objects.PlayerTag;
 import com.denizenscript.denizencore.objects.ObjectTag;
 import com.denizenscript.denizencore.objects.core.ElementTag;
 import com.denizenscript.denizencore.objects.core.MapTag;
-import kr.toxicity.model.api.BetterModel;
 import kr.toxicity.model.api.animation.RunningAnimation;
-import kr.toxicity.model.api.bone.RenderedBone;
 import kr.toxicity.model.api.data.blueprint.BlueprintAnimation;
-import kr.toxicity.model.api.data.renderer.ModelRenderer;
 import kr.toxicity.model.api.tracker.EntityTracker;
-import kr.toxicity.model.api.tracker.EntityTrackerRegistry;
-import meigo.dbettermodel.denizen.objects.BMBoneTag;
+import meigo.dbettermodel.denizen.objects.BMModelTag;
+import meigo.dbettermodel.services.LimbModelIndex;
+import meigo.dbettermodel.services.ModelService;
 import org.bukkit.entity.Player;
 
-import java.util.List;
 import java.util.Optional;
-import java.util.Set;
-import java.util.UUID;
-import java.util.stream.Collectors;
 
 public class DBetterModelPlayerTagExtensions {
 
@@ -54,33 +48,13 @@ public class DBetterModelPlayerTagExtensions {
             if (player == null) {
                 return null;
             }
-            Optional<EntityTrackerRegistry> registryOpt = BetterModel.registry(player);
-            if (registryOpt.isEmpty()) {
+            LimbModelIndex limbIndex = ModelService.getInstance().getLimbIndex();
+            if (limbIndex.isEmpty()) {
                 return null;
             }
-            EntityTrackerRegistry registry = registryOpt.get();
-            Set<String> limbModelNames = BetterModel.limbs().stream()
-                    .map(ModelRenderer::name)
-                    .collect(Collectors.toSet());
-            if (limbModelNames.isEmpty()) {
-                return null;
-            }
-            List<EntityTracker> playerLimbTrackers = registry.trackers().stream()
-                    .filter(tracker -> limbModelNames.contains(tracker.name()))
-                    .toList();
-            if (playerLimbTrackers.isEmpty()) {
-                return null;
-            }
-            EntityTracker targetTracker;
-            if (attribute.hasContext(1)) {
-                String modelName = attribute.getContext(1);
-                targetTracker = playerLimbTrackers.stream()
-                        .filter(tracker -> tracker.name().equalsIgnoreCase(modelName))
-                        .findFirst()
-                        .orElse(null);
-            } else {
-                targetTracker = playerLimbTrackers.get(0);
-            }
+            EntityTracker targetTracker = attribute.hasContext(1)
+                    ? limbIndex.getLimbTracker(player.getUniqueId(), attribute.getContext(1))
+                    : limbIndex.getFirstLimbTracker(player.getUniqueId());
             if (targetTracker == null) {
                 return null;
             }
@@ -124,21 +98,14 @@ public class DBetterModelPlayerTagExtensions {
                 return null;
             }
 
-            if (BetterModel.limbs().stream().noneMatch(limb -> limb.name().equalsIgnoreCase(modelName))) {
+            LimbModelIndex limbIndex = ModelService.getInstance().getLimbIndex();
+            if (!limbIndex.isLimb(modelName)) {
                 attribute.echoError("Model '" + modelName + "' is not a valid player limb model.");
                 return null;
             }
 
-            return BetterModel.registry(player)
-                    .flatMap(registry -> Optional.ofNullable(registry.tracker(modelName)))
-                    .map(tracker -> {
-                        MapTag map = new MapTag();
-                        UUID uuid = tracker.registry().uuid();
-                        for (RenderedBone bone : tracker.bones()) {
-                            map.putObject(bone.name().name(), new BMBoneTag(uuid, modelName, bone.name().name()));
-                        }
-                        return map;
-                    }).orElse(null);
+            EntityTracker tracker = limbIndex.getLimbTracker(player.getUniqueId(), modelName);
+            return tracker != null ? BMModelTag.getBonesMap(tracker) : null;
         });
     }
 
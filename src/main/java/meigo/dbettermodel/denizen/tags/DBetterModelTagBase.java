@@ -0,0 +1,48 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.denizen.tags;
+
+import com.denizenscript.denizencore.objects.core.ElementTag;
+import com.denizenscript.denizencore.objects.core.MapTag;
+import com.denizenscript.denizencore.tags.TagManager;
+import meigo.dbettermodel.services.ModelService;
+import meigo.dbettermodel.services.SkinService;
+import meigo.dbettermodel.util.DBMProfiler;
+
+public class DBetterModelTagBase {
+
+    public static void register() {
+        // <--[tag]
+        // @attribute <bm_stats>
+        // @returns MapTag
+        // @plugin DBetterModel
+        // @description
+        // Returns DBetterModel's runtime statistics.
+        // 'profiler_enabled' is whether the profiler is currently recording (see 'options.profiler' in config.yml).
+        // 'profiler' contains one map per category (command, mechanism, model_mechanism, tag), keyed by section name.
+        // Each section has 'count', 'total_ms', 'average_us', 'max_us' and a 'histogram' of call latencies.
+        // 'model_service' contains bone controller cache and update coalescing counters, the number of per-player hidden bones,
+        // 'lod' counters of the level of detail system (see 'options.lod' in config.yml),
+        // 'spawn_queue' with the number of models waiting in 'bmmodel ... queue' and how many were created, failed or cancelled, 'tweens' counters of <@link command bmtween>,
+        // the number of bones with an active 'look_at' constraint, and 'followers' counters of <@link command bmfollow>.
+        // 'skin_cache' contains the size, hits, misses and joined loads of the skin cache used by bmpart.
+        //
+        // @example
+        // # Show how many times bmstate ran and its average latency.
+        // - narrate "<bm_stats.get[profiler].get[command].get[bmstate].get[count]> calls, avg <bm_stats.get[profiler].get[command].get[bmstate].get[average_us]>us"
+        // -->
+        TagManager.registerTagHandler(MapTag.class, "bm_stats", (attribute) -> getStats());
+    }
+
+    public static MapTag getStats() {
+        MapTag map = new MapTag();
+        map.putObject("profiler_enabled", new ElementTag(DBMProfiler.enabled));
+        map.putObject("profiler", DBMProfiler.toMapTag());
+        map.putObject("model_service", ModelService.getInstance().getStatistics());
+        map.putObject("skin_cache", SkinService.getInstance().getStatistics());
+        return map;
+    }
+}
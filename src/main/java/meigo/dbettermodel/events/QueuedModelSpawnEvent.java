@@ -0,0 +1,97 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.events;
+
+import kr.toxicity.model.api.tracker.EntityTracker;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * Called when a model queued with 'bmmodel ... queue' leaves the queue, whether or not it could be created.
+ */
+public class QueuedModelSpawnEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final UUID entityUUID;
+    private final Entity entity;
+    private final String modelName;
+    private final EntityTracker tracker;
+    private final Reason reason;
+    private final long waitedTicks;
+
+    /**
+     * Why a request left the queue.
+     */
+    public enum Reason {
+        /** The model was created. */
+        CREATED,
+        /** The entity already had the model when its turn came, so nothing was created. */
+        EXISTING,
+        /** The entity no longer existed or the model renderer was removed. */
+        FAILED,
+        /** The request was cancelled, e.g. because the model was removed or created directly. */
+        CANCELLED,
+        /** The entity unloaded while the request was waiting. */
+        UNLOADED
+    }
+
+    public QueuedModelSpawnEvent(UUID entityUUID, Entity entity, String modelName, EntityTracker tracker, Reason reason, long waitedTicks) {
+        this.entityUUID = entityUUID;
+        this.entity = entity;
+        this.modelName = modelName;
+        this.tracker = tracker;
+        this.reason = reason;
+        this.waitedTicks = waitedTicks;
+    }
+
+    public UUID getEntityUUID() {
+        return entityUUID;
+    }
+
+    /**
+     * @return The entity, or null if it no longer exists.
+     */
+    public Entity getEntity() {
+        return entity;
+    }
+
+    public String getModelName() {
+        return modelName;
+    }
+
+    /**
+     * @return The created model, or the existing one for {@link Reason#EXISTING}, or null if there is none.
+     */
+    public EntityTracker getTracker() {
+        return tracker;
+    }
+
+    public boolean isSuccess() {
+        return tracker != null;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public long getWaitedTicks() {
+        return waitedTicks;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
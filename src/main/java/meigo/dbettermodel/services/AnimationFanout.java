@@ -0,0 +1,125 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.services;
+
+import kr.toxicity.model.api.animation.AnimationModifier;
+import kr.toxicity.model.api.bone.RenderedBone;
+import kr.toxicity.model.api.tracker.EntityTracker;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Plays one animation setup for a set of viewers on any number of trackers.
+ * BetterModel binds a per-player animation to a single player, so each viewer needs its own modifier;
+ * these are built once per fan-out and reused for every tracker it is played on.
+ * In shared mode, a tracker whose current viewers are all in the set runs a single animation
+ * for the whole model instead of one per viewer.
+ */
+public class AnimationFanout {
+
+    private static final Runnable NO_OP = () -> {};
+
+    private final AnimationModifier modifier;
+    private final Set<Player> viewers;
+    private final boolean shared;
+    private List<AnimationModifier> viewerModifiers;
+
+    /**
+     * @param modifier The animation settings used by {@link #play(EntityTracker, Predicate, String)}. Its player, if any, is ignored when viewers are given.
+     * @param viewers  The players to show the animation to, or null to show it to everyone. Null entries are skipped,
+     *                 so a list of only offline players shows the animation to nobody.
+     * @param shared   Whether to run a single animation when the viewers include everyone currently watching the model.
+     */
+    public AnimationFanout(AnimationModifier modifier, Collection<Player> viewers, boolean shared) {
+        this.modifier = modifier;
+        if (viewers == null) {
+            this.viewers = null;
+        } else {
+            this.viewers = new LinkedHashSet<>();
+            for (Player viewer : viewers) {
+                if (viewer != null) {
+                    this.viewers.add(viewer);
+                }
+            }
+        }
+        this.shared = shared;
+    }
+
+    /**
+     * @return Whether viewers were given but none of them can see the animation, in which case playing it does nothing.
+     */
+    public boolean isShownToNobody() {
+        return viewers != null && viewers.isEmpty();
+    }
+
+    public void play(EntityTracker tracker, Predicate<RenderedBone> bones, String animation) {
+        if (isShownToNobody()) {
+            return;
+        }
+        if (isShownToEveryone(tracker)) {
+            tracker.animate(bones, animation, modifier, NO_OP);
+            return;
+        }
+        if (viewerModifiers == null) {
+            viewerModifiers = createViewerModifiers(modifier);
+        }
+        for (AnimationModifier viewerModifier : viewerModifiers) {
+            tracker.animate(bones, animation, viewerModifier, NO_OP);
+        }
+    }
+
+    /**
+     * Plays the animation with settings specific to one tracker, e.g. a speed bound to that model.
+     * The per-viewer modifiers are built for this call only.
+     */
+    public void play(EntityTracker tracker, Predicate<RenderedBone> bones, String animation, AnimationModifier trackerModifier) {
+        if (isShownToNobody()) {
+            return;
+        }
+        if (isShownToEveryone(tracker)) {
+            tracker.animate(bones, animation, trackerModifier, NO_OP);
+            return;
+        }
+        for (AnimationModifier viewerModifier : createViewerModifiers(trackerModifier)) {
+            tracker.animate(bones, animation, viewerModifier, NO_OP);
+        }
+    }
+
+    private boolean isShownToEveryone(EntityTracker tracker) {
+        return viewers == null || (shared && isWatchedOnlyByViewers(tracker));
+    }
+
+    private boolean isWatchedOnlyByViewers(EntityTracker tracker) {
+        boolean[] onlyViewers = {true};
+        tracker.getPipeline().viewedPlayer().forEach(player -> {
+            if (!viewers.contains(player)) {
+                onlyViewers[0] = false;
+            }
+        });
+        return onlyViewers[0];
+    }
+
+    private List<AnimationModifier> createViewerModifiers(AnimationModifier base) {
+        List<AnimationModifier> modifiers = new ArrayList<>(viewers.size());
+        for (Player viewer : viewers) {
+            modifiers.add(AnimationModifier.builder()
+                    .start(base.start())
+                    .end(base.end())
+                    .type(base.type())
+                    .speed(base.speed())
+                    .override(base.override())
+                    .player(viewer)
+                    .build());
+        }
+        return modifiers;
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.services;
+
+/**
+ * A named, mutable animation speed of one model.
+ * Animations bound to it read the current value every frame without any parsing,
+ * and scripts change it through the 'animation_speed' mechanism of BMModelTag.
+ */
+public class AnimationSpeed {
+
+    private volatile float speed;
+
+    public AnimationSpeed(float speed) {
+        this.speed = speed;
+    }
+
+    public float get() {
+        return speed;
+    }
+
+    public void set(float speed) {
+        this.speed = speed;
+    }
+}
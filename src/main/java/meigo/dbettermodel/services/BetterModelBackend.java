@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.services;
+
+import kr.toxicity.model.api.BetterModel;
+import kr.toxicity.model.api.animation.AnimationModifier;
+import kr.toxicity.model.api.data.renderer.ModelRenderer;
+import kr.toxicity.model.api.tracker.EntityTracker;
+import kr.toxicity.model.api.tracker.EntityTrackerRegistry;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The live {@link ModelBackend}, backed by the running BetterModel plugin.
+ */
+public class BetterModelBackend implements ModelBackend {
+
+    @Override
+    public EntityTracker tracker(UUID entityUUID, String modelName) {
+        EntityTrackerRegistry registry = BetterModel.registryOrNull(entityUUID);
+        return registry != null ? registry.tracker(modelName) : null;
+    }
+
+    @Override
+    public Collection<EntityTracker> trackers(UUID entityUUID) {
+        EntityTrackerRegistry registry = BetterModel.registryOrNull(entityUUID);
+        return registry != null ? registry.trackers() : List.of();
+    }
+
+    @Override
+    public boolean hasRenderer(String modelName) {
+        return BetterModel.plugin().modelManager().renderer(modelName) != null;
+    }
+
+    @Override
+    public boolean create(String modelName, Entity entity) {
+        ModelRenderer renderer = BetterModel.plugin().modelManager().renderer(modelName);
+        if (renderer == null) {
+            return false;
+        }
+        renderer.create(entity);
+        return true;
+    }
+
+    @Override
+    public boolean remove(UUID entityUUID, String modelName) {
+        EntityTrackerRegistry registry = BetterModel.registryOrNull(entityUUID);
+        return registry != null && registry.remove(modelName);
+    }
+
+    @Override
+    public boolean hasLimb(String modelName) {
+        return BetterModel.limbOrNull(modelName) != null;
+    }
+
+    @Override
+    public Collection<String> limbNames() {
+        Collection<ModelRenderer> limbs = BetterModel.limbs();
+        List<String> names = new ArrayList<>(limbs.size());
+        for (ModelRenderer limb : limbs) {
+            names.add(limb.name());
+        }
+        return names;
+    }
+
+    @Override
+    public boolean animateLimb(Player player, String modelName, String animation, AnimationModifier modifier) {
+        return BetterModel.plugin().modelManager().animate(player, modelName, animation, modifier);
+    }
+}
@@ -1,18 +1,16 @@
 package meigo.dbettermodel.services;
 
 import kr.toxicity.model.api.bone.RenderedBone;
-import kr.toxicity.model.api.nms.HitBox;
 import kr.toxicity.model.api.nms.ModelDisplay;
 import kr.toxicity.model.api.nms.PacketBundler;
 import kr.toxicity.model.api.tracker.EntityTracker;
 import kr.toxicity.model.api.util.TransformedItemStack;
 import kr.toxicity.model.api.util.function.BonePredicate;
-import org.bukkit.Location;
 import org.bukkit.entity.Display;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.joml.Quaternionf;
+import org.joml.Quaternionfc;
 import org.joml.Vector3f;
 
 import java.util.List;
@@ -21,44 +19,130 @@ public class BoneController {
 
     private final EntityTracker tracker;
     private final RenderedBone bone;
-    private final Quaternionf customRotation = new Quaternionf();
+    private final TrackerUpdateQueue updateQueue;
+    private final BoneVisibilityManager visibility;
+    // Both rotations are replaced rather than modified, so the modifier never sees a half-written one. Null while not set.
+    private volatile Quaternionfc customRotation;
+    private volatile Quaternionfc aimRotation;
+    private boolean rotationModifierInstalled;
     private TransformedItemStack currentTransformedItemStack;
+    private int tint = 0xFFFFFF;
 
-    public BoneController(EntityTracker tracker, RenderedBone bone) {
+    public BoneController(EntityTracker tracker, RenderedBone bone, TrackerUpdateQueue updateQueue, BoneVisibilityManager visibility) {
         this.tracker = tracker;
         this.bone = bone;
+        this.updateQueue = updateQueue;
+        this.visibility = visibility;
         this.currentTransformedItemStack = bone.getGroup().getItemStack().copy();
+    }
 
-        this.bone.addRotationModifier(BonePredicate.TRUE, animationRotation ->
-                animationRotation.mul(customRotation, new Quaternionf()));
+    /**
+     * Applied by BetterModel to the animated rotation of the bone on every frame.
+     * Returns the input untouched while neither a custom rotation nor a look-at aim is set, and otherwise a new quaternion,
+     * as the result may still be in use by another viewer's or thread's call when the modifier runs again.
+     * The result is aim * animation * custom: the custom rotation turns the bone within its animated pose, and the aim
+     * turns that pose as a whole, since the {@link LookAtService} measures it from the model's facing rather than the bone's.
+     */
+    private Quaternionf applyCustomRotation(Quaternionf animationRotation) {
+        Quaternionfc custom = customRotation;
+        Quaternionfc aim = aimRotation;
+        if (custom == null && aim == null) {
+            return animationRotation;
+        }
+        Quaternionf result = custom != null ? animationRotation.mul(custom, new Quaternionf()) : new Quaternionf(animationRotation);
+        return aim != null ? result.premul(aim) : result;
     }
 
-    private void forceUpdate() {
-        tracker.forceUpdate(true);
+    private void installRotationModifier() {
+        if (!rotationModifierInstalled) {
+            bone.addRotationModifier(BonePredicate.TRUE, this::applyCustomRotation);
+            rotationModifierInstalled = true;
+        }
     }
 
-    // --- Getters for Tags ---
-    public Location getWorldLocation() {
-        Vector3f worldPos = bone.worldPosition();
-        return new Location(tracker.sourceEntity().location().getWorld(), worldPos.x(), worldPos.y(), worldPos.z());
+    private static boolean isIdentity(Quaternionf rotation) {
+        return rotation.x == 0f && rotation.y == 0f && rotation.z == 0f && rotation.w == 1f;
     }
 
-    public Vector3f getWorldRotationEuler() {
-        return bone.worldRotation();
+    EntityTracker getTracker() {
+        return tracker;
     }
 
-    public boolean isVisible() {
-        ModelDisplay display = bone.getDisplay();
-        return display != null && !display.invisible();
+    RenderedBone getBone() {
+        return bone;
+    }
+
+    /**
+     * Copies the custom rotation into dest, or the identity rotation if none is set.
+     */
+    public Quaternionf getRotation(Quaternionf dest) {
+        Quaternionfc rotation = customRotation;
+        return rotation != null ? dest.set(rotation) : dest.identity();
+    }
+
+    /**
+     * @return The offset of the bone's item. Must not be modified.
+     */
+    public Vector3f getOffset() {
+        return currentTransformedItemStack.offset();
+    }
+
+    /**
+     * @return The scale of the bone's item. Must not be modified.
+     */
+    public Vector3f getScale() {
+        return currentTransformedItemStack.scale();
+    }
+
+    /**
+     * @return The last tint set through this controller, or white if none was set.
+     */
+    public int getTint() {
+        return tint;
+    }
+
+    private void forceUpdate() {
+        updateQueue.markDirty(tracker);
     }
 
     // --- Handlers for Mechanisms ---
     public void setRotation(Quaternionf rotation) {
-        this.customRotation.set(rotation);
+        if (isIdentity(rotation)) {
+            resetRotation();
+            return;
+        }
+        this.customRotation = new Quaternionf(rotation);
+        installRotationModifier();
+        forceUpdate();
+    }
+
+    public void resetRotation() {
+        if (customRotation == null) {
+            return;
+        }
+        this.customRotation = null;
+        forceUpdate();
+    }
+
+    /**
+     * Turns the bone by the given angles from the model's facing, on top of its other rotations. Used by the {@link LookAtService}.
+     */
+    void setAim(float yawDegrees, float pitchDegrees) {
+        aimRotation = new Quaternionf().rotationY((float) Math.toRadians(-yawDegrees)).rotateX((float) Math.toRadians(pitchDegrees));
+        installRotationModifier();
+        forceUpdate();
+    }
+
+    void clearAim() {
+        if (aimRotation == null) {
+            return;
+        }
+        aimRotation = null;
         forceUpdate();
     }
 
     public void setTint(int color) {
+        this.tint = color;
         if (bone.tint(BonePredicate.TRUE, color)) {
             forceUpdate();
         }
@@ -75,19 +159,7 @@ public class BoneController {
             setVisible(visible);
             return;
         }
-        ModelDisplay display = bone.getDisplay();
-        if (display == null) {
-            return;
-        }
-        PacketBundler bundler = tracker.getPipeline().createParallelBundler();
-        if (visible) {
-            display.spawn(true, bundler);
-        } else {
-            display.remove(bundler);
-        }
-        for (Player player : players) {
-            bundler.send(player);
-        }
+        visibility.setVisible(tracker, bone, visible, players);
     }
 
     public void setViewRange(float range) {
@@ -160,28 +232,6 @@ public class BoneController {
         }
     }
 
-    // --- Command Logic ---
-    public void mount(Entity entity) {
-        HitBox hitbox = bone.getHitBox();
-        if (hitbox != null && hitbox.mountController().canMount()) {
-            hitbox.mount(entity);
-        }
-    }
-
-    public void dismount(Entity entity) {
-        HitBox hitbox = bone.getHitBox();
-        if (hitbox != null) {
-            hitbox.dismount(entity);
-        }
-    }
-
-    public void dismountAll() {
-        HitBox hitbox = bone.getHitBox();
-        if (hitbox != null) {
-            hitbox.dismountAll();
-        }
-    }
-
     public void setShadowRadius(float radius) {
         if (bone.applyAtDisplay(BonePredicate.TRUE, display -> display.shadowRadius(radius))) {
             forceUpdate();
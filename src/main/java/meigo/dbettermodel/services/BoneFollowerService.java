@@ -0,0 +1,224 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.services;
+
+import com.denizenscript.denizencore.objects.core.ElementTag;
+import com.denizenscript.denizencore.objects.core.MapTag;
+import io.papermc.paper.entity.TeleportFlag;
+import kr.toxicity.model.api.bone.RenderedBone;
+import kr.toxicity.model.api.tracker.EntityTracker;
+import meigo.dbettermodel.denizen.objects.BMBoneTag;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps entities attached to bones, e.g. text displays, particle anchors or armor stands.
+ * Every follower is moved to its bone in one pass per tick. Followers are grouped by model,
+ * so each model's entity is looked up once per pass, and followers already in place are not teleported.
+ * Followers are released when the model closes, when either entity unloads, or when the follower is removed.
+ * Teleporting entities is only allowed on the server thread, which is also where followers are added and released,
+ * so neither index is synchronized.
+ */
+public class BoneFollowerService {
+
+    private static final double MOVE_EPSILON_SQUARED = 1.0E-6;
+    private static final float TURN_EPSILON = 0.01f;
+
+    private final ModelService service;
+    private final Map<EntityTracker, List<Follower>> byTracker = new IdentityHashMap<>();
+    private final Map<UUID, Follower> byFollower = new HashMap<>();
+    private final Location originScratch = new Location(null, 0, 0, 0);
+    private final Location currentScratch = new Location(null, 0, 0, 0);
+    private final Vector3f offsetScratch = new Vector3f();
+    private final LongAdder teleports = new LongAdder();
+
+    public BoneFollowerService(ModelService service) {
+        this.service = service;
+    }
+
+    /**
+     * Attaches an entity to a bone, replacing what it followed before.
+     *
+     * @param offset The offset from the bone, turned with the bone.
+     * @param rotate Whether the entity should also face the bone's direction.
+     */
+    public void follow(Entity entity, EntityTracker tracker, RenderedBone bone, Vector3f offset, boolean rotate) {
+        unfollow(entity.getUniqueId());
+        Follower follower = new Follower(entity, tracker, bone, new Vector3f(offset), rotate);
+        byFollower.put(entity.getUniqueId(), follower);
+        byTracker.computeIfAbsent(tracker, k -> new ArrayList<>()).add(follower);
+    }
+
+    /**
+     * Detaches an entity from the bone it follows, leaving it where it is.
+     *
+     * @return Whether the entity was following a bone.
+     */
+    public boolean unfollow(UUID entityUUID) {
+        Follower follower = byFollower.remove(entityUUID);
+        if (follower == null) {
+            return false;
+        }
+        List<Follower> followers = byTracker.get(follower.tracker);
+        if (followers != null) {
+            followers.remove(follower);
+            if (followers.isEmpty()) {
+                byTracker.remove(follower.tracker);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The bone the entity follows, or null if it does not follow any.
+     */
+    public BMBoneTag getFollowedBone(UUID entityUUID) {
+        Follower follower = byFollower.get(entityUUID);
+        return follower != null ? service.getBoneTag(follower.tracker, follower.bone.name().name()) : null;
+    }
+
+    public void tick() {
+        if (byTracker.isEmpty()) {
+            return;
+        }
+        Iterator<Map.Entry<EntityTracker, List<Follower>>> trackers = byTracker.entrySet().iterator();
+        while (trackers.hasNext()) {
+            Map.Entry<EntityTracker, List<Follower>> entry = trackers.next();
+            Entity source = Bukkit.getEntity(entry.getKey().registry().uuid());
+            if (source == null) {
+                continue;
+            }
+            Location origin = source.getLocation(originScratch);
+            List<Follower> followers = entry.getValue();
+            for (int i = followers.size() - 1; i >= 0; i--) {
+                Follower follower = followers.get(i);
+                if (!follower.entity.isValid()) {
+                    byFollower.remove(follower.entity.getUniqueId());
+                    followers.remove(i);
+                    continue;
+                }
+                move(follower, origin);
+            }
+            if (followers.isEmpty()) {
+                trackers.remove();
+            }
+        }
+    }
+
+    private void move(Follower follower, Location origin) {
+        RenderedBone bone = follower.bone;
+        Vector3f position = bone.worldPosition();
+        Location target = follower.target;
+        target.setWorld(origin.getWorld());
+        Location current = follower.entity.getLocation(currentScratch);
+        Quaternionf rotation = null;
+        if (follower.hasOffset || follower.rotate) {
+            rotation = bone.hitBoxViewRotation();
+        }
+        if (follower.hasOffset) {
+            Vector3f offset = offsetScratch.set(follower.offset).rotate(rotation);
+            target.set(origin.getX() + position.x + offset.x, origin.getY() + position.y + offset.y, origin.getZ() + position.z + offset.z);
+        } else {
+            target.set(origin.getX() + position.x, origin.getY() + position.y, origin.getZ() + position.z);
+        }
+        if (follower.rotate) {
+            Vector3f direction = offsetScratch.set(0, 0, 1).rotate(rotation);
+            target.setYaw((float) Math.toDegrees(Math.atan2(-direction.x, direction.z)));
+            target.setPitch((float) Math.toDegrees(Math.atan2(-direction.y, Math.sqrt(direction.x * direction.x + direction.z * direction.z))));
+        } else {
+            target.setYaw(current.getYaw());
+            target.setPitch(current.getPitch());
+        }
+        if (current.getWorld() == target.getWorld()
+                && current.distanceSquared(target) < MOVE_EPSILON_SQUARED
+                && Math.abs(current.getYaw() - target.getYaw()) < TURN_EPSILON
+                && Math.abs(current.getPitch() - target.getPitch()) < TURN_EPSILON) {
+            return;
+        }
+        follower.entity.teleport(target, TeleportFlag.EntityState.RETAIN_PASSENGERS, TeleportFlag.EntityState.RETAIN_VEHICLE);
+        teleports.increment();
+    }
+
+    public void evictTracker(EntityTracker tracker) {
+        List<Follower> followers = byTracker.remove(tracker);
+        if (followers != null) {
+            for (Follower follower : followers) {
+                byFollower.remove(follower.entity.getUniqueId());
+            }
+        }
+    }
+
+    /**
+     * Releases followers of models on the given entities, and the given entities themselves if they follow a bone.
+     */
+    public void evictEntities(Set<UUID> entityUUIDs) {
+        if (byFollower.isEmpty()) {
+            return;
+        }
+        byTracker.entrySet().removeIf(entry -> {
+            if (entityUUIDs.contains(entry.getKey().registry().uuid())) {
+                for (Follower follower : entry.getValue()) {
+                    byFollower.remove(follower.entity.getUniqueId());
+                }
+                return true;
+            }
+            entry.getValue().removeIf(follower -> {
+                if (entityUUIDs.contains(follower.entity.getUniqueId())) {
+                    byFollower.remove(follower.entity.getUniqueId());
+                    return true;
+                }
+                return false;
+            });
+            return entry.getValue().isEmpty();
+        });
+    }
+
+    public void clear() {
+        byTracker.clear();
+        byFollower.clear();
+    }
+
+    public MapTag getStatistics() {
+        MapTag map = new MapTag();
+        map.putObject("followers", new ElementTag(byFollower.size()));
+        map.putObject("models", new ElementTag(byTracker.size()));
+        map.putObject("teleports", new ElementTag(teleports.sum()));
+        return map;
+    }
+
+    private static final class Follower {
+        private final Entity entity;
+        private final EntityTracker tracker;
+        private final RenderedBone bone;
+        private final Vector3f offset;
+        private final boolean hasOffset;
+        private final boolean rotate;
+        // Reused for every teleport of this follower.
+        private final Location target = new Location(null, 0, 0, 0);
+
+        private Follower(Entity entity, EntityTracker tracker, RenderedBone bone, Vector3f offset, boolean rotate) {
+            this.entity = entity;
+            this.tracker = tracker;
+            this.bone = bone;
+            this.offset = offset;
+            this.hasOffset = offset.lengthSquared() > 0;
+            this.rotate = rotate;
+        }
+    }
+}
@@ -5,26 +5,33 @@
 
 package meigo.dbettermodel.services;
 
+import com.denizenscript.denizen.objects.EntityTag;
 import com.denizenscript.denizen.objects.ItemTag;
 import com.denizenscript.denizen.objects.LocationTag;
 import com.denizenscript.denizen.objects.PlayerTag;
 import com.denizenscript.denizencore.objects.Mechanism;
+import com.denizenscript.denizencore.objects.ObjectTag;
 import com.denizenscript.denizencore.objects.core.*;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
+import meigo.dbettermodel.util.DBMProfiler;
+import org.bukkit.Location;
 import org.bukkit.entity.Display;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.BiConsumer;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class BoneMechanismHandler {
 
-    private final Map<String, BiConsumer<BoneController, Mechanism>> handlers = new HashMap<>();
+    private final Map<String, Function<Mechanism, Consumer<BoneController>>> handlers = new HashMap<>();
 
     public BoneMechanismHandler() {
         registerHandlers();
@@ -44,24 +51,41 @@ public class BoneMechanismHandler {
         handlers.put("view_range", this::handleViewRange);
         handlers.put("shadow_radius", this::handleShadowRadius);
         handlers.put("billboard", this::handleBillboard);
+        handlers.put("look_at", this::handleLookAt);
     }
 
     public void handle(BoneController controller, Mechanism mechanism) {
-        BiConsumer<BoneController, Mechanism> handler = handlers.get(mechanism.getName());
+        long start = DBMProfiler.start();
+        Consumer<BoneController> action = compile(mechanism);
+        if (action != null) {
+            action.accept(controller);
+        }
+        DBMProfiler.record(DBMProfiler.MECHANISM, mechanism.getName(), start);
+    }
 
-        if (handler != null) {
-            handler.accept(controller, mechanism);
-            mechanism.fulfill();
+    /**
+     * Parses the mechanism value once and returns the resulting change, ready to be applied
+     * to any number of bones. Returns null if the mechanism is not a bone mechanism or its value is invalid.
+     */
+    public Consumer<BoneController> compile(Mechanism mechanism) {
+        Function<Mechanism, Consumer<BoneController>> handler = handlers.get(mechanism.getName());
+        if (handler == null) {
+            return null;
         }
+        Consumer<BoneController> action = handler.apply(mechanism);
+        mechanism.fulfill();
+        return action;
     }
 
-    private void handleTint(BoneController controller, Mechanism mechanism) {
-        if (mechanism.requireInteger()) {
-            controller.setTint(mechanism.getValue().asInt());
+    private Consumer<BoneController> handleTint(Mechanism mechanism) {
+        if (!mechanism.requireInteger()) {
+            return null;
         }
+        int color = mechanism.getValue().asInt();
+        return controller -> controller.setTint(color);
     }
 
-    private void handleVisible(BoneController controller, Mechanism mechanism) {
+    private Consumer<BoneController> handleVisible(Mechanism mechanism) {
         boolean visible;
         ListTag targets = null;
 
@@ -69,7 +93,7 @@ public class BoneMechanismHandler {
             ListTag list = mechanism.getValue().asType(ListTag.class, mechanism.context);
             if (list.isEmpty() || !list.getObject(0).canBeType(ElementTag.class) || !list.getObject(0).asElement().isBoolean()) {
                 mechanism.echoError("If using a ListTag for 'visible', the first element must be a boolean (true/false).");
-                return;
+                return null;
             }
             visible = list.getObject(0).asElement().asBoolean();
             if (list.size() > 1) {
@@ -78,81 +102,97 @@ public class BoneMechanismHandler {
         } else if (mechanism.requireBoolean()) {
             visible = mechanism.getValue().asBoolean();
         } else {
-            return;
+            return null;
         }
 
         if (targets == null || targets.isEmpty()) {
-            controller.setVisible(visible);
-        } else {
-            List<Player> players = targets.filter(PlayerTag.class, mechanism.context)
-                    .stream()
-                    .map(PlayerTag::getPlayerEntity)
-                    .collect(Collectors.toList());
-            if (!players.isEmpty()) {
-                controller.setVisible(visible, players);
-            }
+            return controller -> controller.setVisible(visible);
+        }
+        List<Player> players = targets.filter(PlayerTag.class, mechanism.context)
+                .stream()
+                .map(PlayerTag::getPlayerEntity)
+                .collect(Collectors.toList());
+        if (players.isEmpty()) {
+            return null;
         }
+        return controller -> controller.setVisible(visible, players);
     }
 
-    private void handleItem(BoneController controller, Mechanism mechanism) {
-        if (mechanism.requireObject(ItemTag.class)) {
-            controller.setItem(mechanism.getValue().asType(ItemTag.class, mechanism.context).getItemStack());
+    private Consumer<BoneController> handleItem(Mechanism mechanism) {
+        if (!mechanism.requireObject(ItemTag.class)) {
+            return null;
         }
+        ItemStack itemStack = mechanism.getValue().asType(ItemTag.class, mechanism.context).getItemStack();
+        return controller -> controller.setItem(itemStack);
     }
 
-    private void handleOffset(BoneController controller, Mechanism mechanism) {
-        if (mechanism.requireObject(LocationTag.class)) {
-            LocationTag loc = mechanism.getValue().asType(LocationTag.class, mechanism.context);
-            controller.setOffset(new Vector3f((float) loc.getX(), (float) loc.getY(), (float) loc.getZ()));
+    private Consumer<BoneController> handleOffset(Mechanism mechanism) {
+        if (!mechanism.requireObject(LocationTag.class)) {
+            return null;
         }
+        LocationTag loc = mechanism.getValue().asType(LocationTag.class, mechanism.context);
+        Vector3f offset = new Vector3f((float) loc.getX(), (float) loc.getY(), (float) loc.getZ());
+        return controller -> controller.setOffset(new Vector3f(offset));
     }
 
-    private void handleScale(BoneController controller, Mechanism mechanism) {
-        if (mechanism.requireObject(LocationTag.class)) {
-            LocationTag loc = mechanism.getValue().asType(LocationTag.class, mechanism.context);
-            controller.setScale(new Vector3f((float) loc.getX(), (float) loc.getY(), (float) loc.getZ()));
+    private Consumer<BoneController> handleScale(Mechanism mechanism) {
+        if (!mechanism.requireObject(LocationTag.class)) {
+            return null;
         }
+        LocationTag loc = mechanism.getValue().asType(LocationTag.class, mechanism.context);
+        Vector3f scale = new Vector3f((float) loc.getX(), (float) loc.getY(), (float) loc.getZ());
+        return controller -> controller.setScale(new Vector3f(scale));
     }
 
-    private void handleRotate(BoneController controller, Mechanism mechanism) {
-        if (mechanism.requireObject(QuaternionTag.class)) {
-            QuaternionTag quat = mechanism.getValue().asType(QuaternionTag.class, mechanism.context);
-            controller.setRotation(new Quaternionf(quat.x, quat.y, quat.z, quat.w));
+    private Consumer<BoneController> handleRotate(Mechanism mechanism) {
+        if (!mechanism.requireObject(QuaternionTag.class)) {
+            return null;
         }
+        QuaternionTag quat = mechanism.getValue().asType(QuaternionTag.class, mechanism.context);
+        Quaternionf rotation = new Quaternionf(quat.x, quat.y, quat.z, quat.w);
+        return controller -> controller.setRotation(rotation);
     }
 
-    private void handleViewRange(BoneController controller, Mechanism mechanism) {
-        if (mechanism.requireFloat()) {
-            controller.setViewRange(mechanism.getValue().asFloat());
+    private Consumer<BoneController> handleViewRange(Mechanism mechanism) {
+        if (!mechanism.requireFloat()) {
+            return null;
         }
+        float range = mechanism.getValue().asFloat();
+        return controller -> controller.setViewRange(range);
     }
 
-    private void handleInterpolationDuration(BoneController controller, Mechanism mechanism) {
-        if (mechanism.requireObject(DurationTag.class)) {
-            controller.setInterpolationDuration(mechanism.getValue().asType(DurationTag.class, mechanism.context).getTicksAsInt());
+    private Consumer<BoneController> handleInterpolationDuration(Mechanism mechanism) {
+        if (!mechanism.requireObject(DurationTag.class)) {
+            return null;
         }
+        int ticks = mechanism.getValue().asType(DurationTag.class, mechanism.context).getTicksAsInt();
+        return controller -> controller.setInterpolationDuration(ticks);
     }
 
-    private void handleGlow(BoneController controller, Mechanism mechanism) {
-        if (mechanism.requireBoolean()) {
-            controller.setGlow(mechanism.getValue().asBoolean());
+    private Consumer<BoneController> handleGlow(Mechanism mechanism) {
+        if (!mechanism.requireBoolean()) {
+            return null;
         }
+        boolean glow = mechanism.getValue().asBoolean();
+        return controller -> controller.setGlow(glow);
     }
 
-    private void handleGlowColor(BoneController controller, Mechanism mechanism) {
-        if (mechanism.requireInteger()) {
-            controller.setGlowColor(mechanism.getValue().asInt());
+    private Consumer<BoneController> handleGlowColor(Mechanism mechanism) {
+        if (!mechanism.requireInteger()) {
+            return null;
         }
+        int color = mechanism.getValue().asInt();
+        return controller -> controller.setGlowColor(color);
     }
 
-    private void handleBrightness(BoneController controller, Mechanism mechanism) {
+    private Consumer<BoneController> handleBrightness(Mechanism mechanism) {
         if (mechanism.getValue().canBeType(ListTag.class)) {
             ListTag list = mechanism.getValue().asType(ListTag.class, mechanism.context);
             if (list != null && list.size() == 2) {
                 try {
                     int blockLight = new ElementTag(list.get(0)).asInt();
                     int skyLight = new ElementTag(list.get(1)).asInt();
-                    controller.setBrightness(blockLight, skyLight);
+                    return controller -> controller.setBrightness(blockLight, skyLight);
                 } catch (Exception e) {
                     Debug.echoError("Brightness mechanism requires a ListTag of two integers. Invalid input: " + list.identify());
                 }
@@ -162,17 +202,70 @@ public class BoneMechanismHandler {
         } else {
             Debug.echoError("Brightness mechanism requires a ListTag of two integers.");
         }
+        return null;
     }
 
-    private void handleShadowRadius(BoneController controller, Mechanism mechanism) {
-        if (mechanism.requireFloat()) {
-            controller.setShadowRadius(mechanism.getValue().asFloat());
+    private Consumer<BoneController> handleShadowRadius(Mechanism mechanism) {
+        if (!mechanism.requireFloat()) {
+            return null;
         }
+        float radius = mechanism.getValue().asFloat();
+        return controller -> controller.setShadowRadius(radius);
     }
 
-    private void handleBillboard(BoneController controller, Mechanism mechanism) {
-        if (mechanism.requireEnum(Display.Billboard.class)) {
-            controller.setBillboard(Display.Billboard.valueOf(mechanism.getValue().asString().toUpperCase()));
+    private Consumer<BoneController> handleBillboard(Mechanism mechanism) {
+        if (!mechanism.requireEnum(Display.Billboard.class)) {
+            return null;
+        }
+        Display.Billboard billboard = Display.Billboard.valueOf(mechanism.getValue().asString().toUpperCase());
+        return controller -> controller.setBillboard(billboard);
+    }
+
+    private Consumer<BoneController> handleLookAt(Mechanism mechanism) {
+        if (mechanism.getValue().isBoolean() && !mechanism.getValue().asBoolean()) {
+            return controller -> ModelService.getInstance().getLookAt().stop(controller);
+        }
+        if (!mechanism.requireObject(MapTag.class)) {
+            return null;
+        }
+        MapTag map = mechanism.valueAsType(MapTag.class);
+        ObjectTag target = map.getObject("target");
+        if (target == null) {
+            mechanism.echoError("The look_at mechanism requires a 'target' entity or location.");
+            return null;
+        }
+        UUID targetEntity = null;
+        Location targetLocation = null;
+        if (target instanceof EntityTag entityTag) {
+            targetEntity = entityTag.getUUID();
+        } else if (target.canBeType(LocationTag.class)) {
+            targetLocation = target.asType(LocationTag.class, mechanism.context).clone();
+        } else if (target.canBeType(EntityTag.class)) {
+            targetEntity = target.asType(EntityTag.class, mechanism.context).getUUID();
+        } else {
+            mechanism.echoError("Invalid look_at target '" + target + "', must be an entity or a location.");
+            return null;
+        }
+        Float maxYaw = getAngle(mechanism, map, "max_yaw", 180f);
+        Float maxPitch = getAngle(mechanism, map, "max_pitch", 90f);
+        Float turnSpeed = getAngle(mechanism, map, "turn_speed", 0f);
+        if (maxYaw == null || maxPitch == null || turnSpeed == null) {
+            return null;
+        }
+        LookAtService.Spec spec = new LookAtService.Spec(targetEntity, targetLocation, maxYaw, maxPitch, turnSpeed);
+        return controller -> ModelService.getInstance().getLookAt().start(controller, spec);
+    }
+
+    private static Float getAngle(Mechanism mechanism, MapTag map, String key, float defaultValue) {
+        ObjectTag value = map.getObject(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        ElementTag element = value.asElement();
+        if (!element.isFloat() || element.asFloat() < 0) {
+            mechanism.echoError("Invalid look_at '" + key + "' value '" + element + "', must be a number of degrees, zero or more.");
+            return null;
         }
+        return element.asFloat();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.services;
+
+import kr.toxicity.model.api.bone.RenderedBone;
+import kr.toxicity.model.api.nms.ModelDisplay;
+import kr.toxicity.model.api.nms.PacketBundler;
+import kr.toxicity.model.api.tracker.EntityTracker;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which bones are hidden from which players, and keeps them hidden.
+ * Bones can be hidden by scripts and by the level of detail system independently; a bone is shown to a player only if neither hides it.
+ * A player who starts tracking a model again gets their hidden bones removed once more, without any script involvement:
+ * the hide is re-sent every tick until the model's tracker lists the player among its viewers, i.e. BetterModel has spawned it for them.
+ * Packets are collected into one bundle per player and sent once per tick by {@link #flush()}.
+ * Hidden bones are forgotten when their tracker closes.
+ */
+public class BoneVisibilityManager {
+
+    private static final int MAX_REHIDE_TICKS = 200;
+
+    private final ModelService service;
+    // The UUIDs of the players each bone is hidden from.
+    private final TrackerBoneIndex<Set<UUID>> hiddenFrom = new TrackerBoneIndex<>();
+    private final TrackerBoneIndex<Set<UUID>> lodHiddenFrom = new TrackerBoneIndex<>();
+    private final Map<Player, PacketBundler> pendingBundles = new IdentityHashMap<>();
+    // Players who started tracking an entity with hidden bones and may not have been sent its model yet.
+    private final List<Rehide> rehides = new ArrayList<>();
+
+    public BoneVisibilityManager(ModelService service) {
+        this.service = service;
+    }
+
+    /**
+     * Shows or hides a bone for the given players, and remembers it for when they see the model again.
+     */
+    public void setVisible(EntityTracker tracker, RenderedBone bone, boolean visible, Collection<Player> players) {
+        ModelDisplay display = bone.getDisplay();
+        if (display == null) {
+            return;
+        }
+        UUID entityUUID = tracker.registry().uuid();
+        String boneName = bone.name().name();
+        Set<UUID> hidden = visible
+                ? hiddenFrom.get(entityUUID, tracker.name(), boneName)
+                : hiddenFrom.computeIfAbsent(entityUUID, tracker.name(), boneName, ConcurrentHashMap::newKeySet);
+        Set<UUID> lodHidden = lookup(lodHiddenFrom, tracker, boneName);
+        for (Player player : players) {
+            // Hiding is only sent once, but showing is always sent, as the bone may have been removed by other means.
+            if (visible) {
+                if (hidden != null) {
+                    hidden.remove(player.getUniqueId());
+                }
+                if (lodHidden != null && lodHidden.contains(player.getUniqueId())) {
+                    continue;
+                }
+            } else if (!hidden.add(player.getUniqueId())) {
+                continue;
+            }
+            send(tracker, display, player, visible);
+        }
+        if (visible && hidden != null) {
+            removeIfEmpty(hiddenFrom, tracker, boneName, hidden);
+        }
+    }
+
+    /**
+     * Hides or shows a bone for one player on behalf of the level of detail system.
+     * Nothing is sent while a script keeps the bone hidden from the player.
+     */
+    public void setLodHidden(EntityTracker tracker, RenderedBone bone, Player player, boolean lodHidden) {
+        ModelDisplay display = bone.getDisplay();
+        if (display == null) {
+            return;
+        }
+        UUID entityUUID = tracker.registry().uuid();
+        String boneName = bone.name().name();
+        boolean changed;
+        if (lodHidden) {
+            changed = lodHiddenFrom.computeIfAbsent(entityUUID, tracker.name(), boneName, ConcurrentHashMap::newKeySet).add(player.getUniqueId());
+        } else {
+            Set<UUID> hidden = lodHiddenFrom.get(entityUUID, tracker.name(), boneName);
+            changed = hidden != null && hidden.remove(player.getUniqueId());
+            if (changed) {
+                removeIfEmpty(lodHiddenFrom, tracker, boneName, hidden);
+            }
+        }
+        Set<UUID> scriptHidden = lookup(hiddenFrom, tracker, boneName);
+        if (changed && (scriptHidden == null || !scriptHidden.contains(player.getUniqueId()))) {
+            send(tracker, display, player, !lodHidden);
+        }
+    }
+
+    /**
+     * Forgets what the level of detail system hid from a player on an entity, without sending anything.
+     * Used once the player stops tracking the entity, as its displays are gone for them anyway.
+     */
+    public void clearLod(UUID entityUUID, UUID playerUUID) {
+        for (EntityTracker tracker : service.getBackend().trackers(entityUUID)) {
+            Map<String, Set<UUID>> bones = lodHiddenFrom.getModel(entityUUID, tracker.name());
+            if (bones == null) {
+                continue;
+            }
+            for (Map.Entry<String, Set<UUID>> bone : bones.entrySet()) {
+                Set<UUID> hidden = bone.getValue();
+                if (hidden.remove(playerUUID)) {
+                    removeIfEmpty(lodHiddenFrom, tracker, bone.getKey(), hidden);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the entry of a bone that is no longer hidden from anyone, so the index only holds bones that are actually hidden.
+     */
+    private static void removeIfEmpty(TrackerBoneIndex<Set<UUID>> index, EntityTracker tracker, String boneName, Set<UUID> players) {
+        if (players.isEmpty()) {
+            index.remove(tracker.registry().uuid(), tracker.name(), boneName, players);
+        }
+    }
+
+    private static Set<UUID> lookup(TrackerBoneIndex<Set<UUID>> index, EntityTracker tracker, String boneName) {
+        return index.get(tracker.registry().uuid(), tracker.name(), boneName);
+    }
+
+    private void send(EntityTracker tracker, ModelDisplay display, Player player, boolean visible) {
+        PacketBundler bundler = getBundler(tracker, player);
+        if (visible) {
+            display.spawn(true, bundler);
+        } else {
+            display.remove(bundler);
+        }
+        sendNowIfAsync(player, bundler);
+    }
+
+    public boolean isHiddenFrom(UUID entityUUID, String modelName, String boneName, UUID playerUUID) {
+        Set<UUID> hidden = hiddenFrom.get(entityUUID, modelName, boneName);
+        if (hidden != null && hidden.contains(playerUUID)) {
+            return true;
+        }
+        Set<UUID> lodHidden = lodHiddenFrom.get(entityUUID, modelName, boneName);
+        return lodHidden != null && lodHidden.contains(playerUUID);
+    }
+
+    /**
+     * Called when a player starts tracking an entity (Paper's PlayerTrackEntityEvent). BetterModel spawns the model's displays
+     * for the player on its own schedule, so hidden bones are removed again in every {@link #flush()} until the tracker's
+     * render pipeline reports the player as a viewer, which happens once the displays have been spawned for them.
+     */
+    public void onTrack(Player player, Entity entity) {
+        if (hiddenFrom.containsEntity(entity.getUniqueId()) || lodHiddenFrom.containsEntity(entity.getUniqueId())) {
+            rehides.add(new Rehide(player, entity.getUniqueId()));
+        }
+    }
+
+    public void onUntrack(Player player, Entity entity) {
+        if (!rehides.isEmpty()) {
+            rehides.removeIf(rehide -> rehide.player == player && rehide.entityUUID.equals(entity.getUniqueId()));
+        }
+    }
+
+    /**
+     * Sends every pending bundle. Must be called from the main thread, once per tick.
+     */
+    public void flush() {
+        if (!rehides.isEmpty()) {
+            rehides.removeIf(this::reapply);
+        }
+        if (pendingBundles.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<Player, PacketBundler> pending : pendingBundles.entrySet()) {
+            if (pending.getKey().isOnline()) {
+                pending.getValue().send(pending.getKey());
+            }
+        }
+        pendingBundles.clear();
+    }
+
+    /**
+     * Removes the player's hidden bones of an entity again. Removing displays that were not spawned yet does nothing,
+     * so this is repeated until the spawn is known to have happened, or the wait is given up.
+     *
+     * @return Whether the player no longer needs to be re-checked.
+     */
+    private boolean reapply(Rehide rehide) {
+        Player player = rehide.player;
+        if (!player.isOnline()) {
+            return true;
+        }
+        boolean waiting = false;
+        for (EntityTracker tracker : service.getBackend().trackers(rehide.entityUUID)) {
+            boolean hidden = reapply(player, tracker, hiddenFrom.getModel(rehide.entityUUID, tracker.name()));
+            hidden |= reapply(player, tracker, lodHiddenFrom.getModel(rehide.entityUUID, tracker.name()));
+            if (hidden && !isViewing(tracker, player)) {
+                waiting = true;
+            }
+        }
+        return !waiting || --rehide.ticksLeft <= 0;
+    }
+
+    /**
+     * @return Whether any bone of the tracker is hidden from the player.
+     */
+    private boolean reapply(Player player, EntityTracker tracker, Map<String, Set<UUID>> bones) {
+        if (bones == null) {
+            return false;
+        }
+        UUID playerUUID = player.getUniqueId();
+        boolean hidden = false;
+        for (Map.Entry<String, Set<UUID>> entry : bones.entrySet()) {
+            if (!entry.getValue().contains(playerUUID)) {
+                continue;
+            }
+            hidden = true;
+            RenderedBone bone = tracker.bone(entry.getKey());
+            ModelDisplay display = bone != null ? bone.getDisplay() : null;
+            if (display != null) {
+                display.remove(getBundler(tracker, player));
+            }
+        }
+        return hidden;
+    }
+
+    private static boolean isViewing(EntityTracker tracker, Player player) {
+        boolean[] viewing = {false};
+        tracker.getPipeline().viewedPlayer().forEach(viewer -> {
+            if (viewer == player) {
+                viewing[0] = true;
+            }
+        });
+        return viewing[0];
+    }
+
+    private PacketBundler getBundler(EntityTracker tracker, Player player) {
+        if (!Bukkit.isPrimaryThread()) {
+            return tracker.getPipeline().createParallelBundler();
+        }
+        return pendingBundles.computeIfAbsent(player, p -> tracker.getPipeline().createParallelBundler());
+    }
+
+    private static void sendNowIfAsync(Player player, PacketBundler bundler) {
+        if (!Bukkit.isPrimaryThread()) {
+            bundler.send(player);
+        }
+    }
+
+    public void evictTracker(EntityTracker tracker) {
+        hiddenFrom.removeModel(tracker.registry().uuid(), tracker.name());
+        lodHiddenFrom.removeModel(tracker.registry().uuid(), tracker.name());
+    }
+
+    public void evictEntities(Collection<UUID> entityUUIDs) {
+        hiddenFrom.removeEntities(entityUUIDs);
+        lodHiddenFrom.removeEntities(entityUUIDs);
+    }
+
+    public void evictPlayer(Player player) {
+        pendingBundles.remove(player);
+        rehides.removeIf(rehide -> rehide.player == player);
+    }
+
+    public void clear() {
+        hiddenFrom.clear();
+        lodHiddenFrom.clear();
+        pendingBundles.clear();
+        rehides.clear();
+    }
+
+    public int getHiddenBoneCount() {
+        return hiddenFrom.size();
+    }
+
+    private static final class Rehide {
+        private final Player player;
+        private final UUID entityUUID;
+        // A safety limit for players the model is never spawned for, e.g. because BetterModel hides it from them.
+        private int ticksLeft = MAX_REHIDE_TICKS;
+
+        private Rehide(Player player, UUID entityUUID) {
+            this.player = player;
+            this.entityUUID = entityUUID;
+        }
+    }
+}
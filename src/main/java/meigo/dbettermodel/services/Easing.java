@@ -0,0 +1,126 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.services;
+
+import java.util.Locale;
+
+/**
+ * Easing functions for bone tweens. Each maps a linear progress from 0 to 1 onto an eased progress,
+ * which starts at 0 and ends at 1 but may overshoot in between.
+ */
+public enum Easing {
+
+    LINEAR {
+        @Override
+        public float apply(float t) {
+            return t;
+        }
+    },
+    IN_SINE {
+        @Override
+        public float apply(float t) {
+            return 1f - (float) Math.cos(t * Math.PI / 2);
+        }
+    },
+    OUT_SINE {
+        @Override
+        public float apply(float t) {
+            return (float) Math.sin(t * Math.PI / 2);
+        }
+    },
+    IN_OUT_SINE {
+        @Override
+        public float apply(float t) {
+            return (1f - (float) Math.cos(t * Math.PI)) / 2f;
+        }
+    },
+    IN_QUAD {
+        @Override
+        public float apply(float t) {
+            return t * t;
+        }
+    },
+    OUT_QUAD {
+        @Override
+        public float apply(float t) {
+            float inverse = 1f - t;
+            return 1f - inverse * inverse;
+        }
+    },
+    IN_OUT_QUAD {
+        @Override
+        public float apply(float t) {
+            if (t < 0.5f) {
+                return 2f * t * t;
+            }
+            float inverse = -2f * t + 2f;
+            return 1f - inverse * inverse / 2f;
+        }
+    },
+    IN_CUBIC {
+        @Override
+        public float apply(float t) {
+            return t * t * t;
+        }
+    },
+    OUT_CUBIC {
+        @Override
+        public float apply(float t) {
+            float inverse = 1f - t;
+            return 1f - inverse * inverse * inverse;
+        }
+    },
+    IN_OUT_CUBIC {
+        @Override
+        public float apply(float t) {
+            if (t < 0.5f) {
+                return 4f * t * t * t;
+            }
+            float inverse = -2f * t + 2f;
+            return 1f - inverse * inverse * inverse / 2f;
+        }
+    },
+    OUT_BACK {
+        private static final float OVERSHOOT = 1.70158f;
+
+        @Override
+        public float apply(float t) {
+            float shifted = t - 1f;
+            return 1f + (OVERSHOOT + 1f) * shifted * shifted * shifted + OVERSHOOT * shifted * shifted;
+        }
+    },
+    OUT_BOUNCE {
+        @Override
+        public float apply(float t) {
+            if (t < 1f / 2.75f) {
+                return 7.5625f * t * t;
+            }
+            if (t < 2f / 2.75f) {
+                t -= 1.5f / 2.75f;
+                return 7.5625f * t * t + 0.75f;
+            }
+            if (t < 2.5f / 2.75f) {
+                t -= 2.25f / 2.75f;
+                return 7.5625f * t * t + 0.9375f;
+            }
+            t -= 2.625f / 2.75f;
+            return 7.5625f * t * t + 0.984375f;
+        }
+    };
+
+    public abstract float apply(float t);
+
+    /**
+     * @return The easing with the given name, e.g. 'in_out_sine', ignoring case, or null if there is none.
+     */
+    public static Easing byName(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.services;
+
+import com.denizenscript.denizencore.utilities.CoreUtilities;
+import kr.toxicity.model.api.tracker.EntityTracker;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Knows which models are player limb models, and which limb tracker each player is using.
+ * The limb model names only change when BetterModel reloads, so they are read once and refreshed
+ * after every reload instead of on every tag read.
+ */
+public class LimbModelIndex {
+
+    private final ModelService service;
+    // Lowercase name -> name as registered in BetterModel.
+    private volatile Map<String, String> limbNames = Map.of();
+    private final Map<UUID, EntityTracker> firstLimbTrackers = new ConcurrentHashMap<>();
+
+    public LimbModelIndex(ModelService service) {
+        this.service = service;
+    }
+
+    public void refresh() {
+        Collection<String> names = service.getBackend().limbNames();
+        Map<String, String> refreshed = new HashMap<>(names.size() * 2);
+        for (String name : names) {
+            refreshed.put(CoreUtilities.toLowerCase(name), name);
+        }
+        limbNames = refreshed;
+        firstLimbTrackers.clear();
+    }
+
+    public boolean isEmpty() {
+        return limbNames.isEmpty();
+    }
+
+    /**
+     * @return The registered name of a limb model, matched case-insensitively, or null if there is no such limb model.
+     */
+    public String getLimbName(String modelName) {
+        String name = limbNames.get(modelName);
+        return name != null ? name : limbNames.get(CoreUtilities.toLowerCase(modelName));
+    }
+
+    public boolean isLimb(String modelName) {
+        return getLimbName(modelName) != null;
+    }
+
+    /**
+     * @return The player's tracker of the given limb model, or null if the model is not a limb model or the player is not using it.
+     */
+    public EntityTracker getLimbTracker(UUID playerUUID, String modelName) {
+        String limbName = getLimbName(modelName);
+        return limbName != null ? service.getBackend().tracker(playerUUID, limbName) : null;
+    }
+
+    /**
+     * @return The first limb tracker found on the player, or null if they are not using any limb model.
+     * The result is remembered per player until that tracker closes or BetterModel reloads.
+     */
+    public EntityTracker getFirstLimbTracker(UUID playerUUID) {
+        EntityTracker cached = firstLimbTrackers.get(playerUUID);
+        if (cached != null && service.getBackend().tracker(playerUUID, cached.name()) == cached) {
+            return cached;
+        }
+        Map<String, String> names = limbNames;
+        if (names.isEmpty()) {
+            return null;
+        }
+        for (EntityTracker tracker : service.getBackend().trackers(playerUUID)) {
+            if (names.containsKey(CoreUtilities.toLowerCase(tracker.name()))) {
+                firstLimbTrackers.put(playerUUID, tracker);
+                return tracker;
+            }
+        }
+        firstLimbTrackers.remove(playerUUID);
+        return null;
+    }
+
+    public void evictTracker(UUID playerUUID, EntityTracker tracker) {
+        firstLimbTrackers.remove(playerUUID, tracker);
+    }
+
+    public void evictPlayer(UUID playerUUID) {
+        firstLimbTrackers.remove(playerUUID);
+    }
+
+    public void clear() {
+        limbNames = Map.of();
+        firstLimbTrackers.clear();
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.services;
+
+import com.denizenscript.denizencore.objects.core.ElementTag;
+import com.denizenscript.denizencore.objects.core.MapTag;
+import kr.toxicity.model.api.bone.RenderedBone;
+import kr.toxicity.model.api.tracker.EntityTracker;
+import meigo.dbettermodel.util.DBMDebug;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Distance-based level of detail: hides configured bones from players who are far away from a model.
+ * Tiers are read from the 'options.lod' section of config.yml. Each tier hides more bones than the one before it.
+ * Viewers are checked every few ticks, and each player receives a limited number of visibility changes per check,
+ * with the nearest models handled first.
+ * The applied tier is kept per player and per model, so models opened or closed on an entity that is already
+ * being viewed are brought in line on the next check without touching its other models.
+ * Hiding is done through the {@link BoneVisibilityManager}, so it never overrides what scripts hide.
+ * The state is driven by tracking events and the end of the server tick, so it is not synchronized.
+ */
+public class LodService {
+
+    private static final int NO_TIER = -1;
+
+    private final ModelService service;
+    private final BoneVisibilityManager visibility;
+    private boolean enabled;
+    private int checkInterval = 10;
+    private int maxChangesPerCheck = 64;
+    private List<Tier> tiers = List.of();
+    // Player UUID -> tracked entity UUID -> model name -> the tier currently applied for that player.
+    // Models without an entry have no tier applied.
+    private final Map<UUID, Map<UUID, Map<String, Integer>>> viewers = new HashMap<>();
+    // Model name -> bone name -> the first tier that hides the bone. Bones that are never hidden are left out.
+    private final Map<String, Map<String, Integer>> boneTiers = new HashMap<>();
+    private final LongAdder changes = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+
+    public LodService(ModelService service, BoneVisibilityManager visibility) {
+        this.service = service;
+        this.visibility = visibility;
+    }
+
+    public void configure(ConfigurationSection config) {
+        enabled = false;
+        tiers = List.of();
+        boneTiers.clear();
+        if (config == null || !config.getBoolean("enabled", false)) {
+            return;
+        }
+        checkInterval = Math.max(1, config.getInt("check-interval", 10));
+        maxChangesPerCheck = Math.max(1, config.getInt("max-changes-per-check", 64));
+        List<Tier> parsed = new ArrayList<>();
+        for (Map<?, ?> tierConfig : config.getMapList("tiers")) {
+            Object distance = tierConfig.get("distance");
+            Object hideBones = tierConfig.get("hide-bones");
+            if (!(distance instanceof Number number) || !(hideBones instanceof List<?> patterns)) {
+                DBMDebug.log("Skipping an invalid LOD tier: each tier needs a 'distance' and a 'hide-bones' list.");
+                continue;
+            }
+            List<Pattern> bonePatterns = new ArrayList<>(patterns.size());
+            for (Object pattern : patterns) {
+                bonePatterns.add(compileWildcard(String.valueOf(pattern)));
+            }
+            parsed.add(new Tier(number.doubleValue() * number.doubleValue(), bonePatterns));
+        }
+        parsed.sort(Comparator.comparingDouble(Tier::distanceSquared));
+        tiers = List.copyOf(parsed);
+        enabled = !tiers.isEmpty();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts checking an entity for a player who began tracking it. Entities without models are left out,
+     * so checks only walk modelled entities; {@link #onModelCreated(EntityTracker)} adds them once they get one.
+     */
+    public void onTrack(Player player, Entity entity) {
+        if (enabled && !service.getBackend().trackers(entity.getUniqueId()).isEmpty()) {
+            viewers.computeIfAbsent(player.getUniqueId(), k -> new HashMap<>()).put(entity.getUniqueId(), new HashMap<>());
+        }
+    }
+
+    /**
+     * Starts checking an entity for the players already tracking it when it gets a model.
+     */
+    public void onModelCreated(EntityTracker tracker) {
+        if (!enabled) {
+            return;
+        }
+        UUID entityUUID = tracker.registry().uuid();
+        Entity entity = Bukkit.getEntity(entityUUID);
+        if (entity == null) {
+            return;
+        }
+        for (Player player : entity.getTrackedBy()) {
+            viewers.computeIfAbsent(player.getUniqueId(), k -> new HashMap<>()).putIfAbsent(entityUUID, new HashMap<>());
+        }
+    }
+
+    public void onUntrack(Player player, Entity entity) {
+        Map<UUID, Map<String, Integer>> tracked = viewers.get(player.getUniqueId());
+        if (tracked != null && tracked.remove(entity.getUniqueId()) != null) {
+            visibility.clearLod(entity.getUniqueId(), player.getUniqueId());
+        }
+    }
+
+    /**
+     * Forgets the applied tier of a closed model, whose hidden bones are dropped along with it.
+     * A model of the same name added later is checked from scratch, and the entity's other models are left as they are.
+     */
+    public void evictTracker(EntityTracker tracker) {
+        UUID entityUUID = tracker.registry().uuid();
+        for (Map<UUID, Map<String, Integer>> tracked : viewers.values()) {
+            Map<String, Integer> applied = tracked.get(entityUUID);
+            if (applied != null) {
+                applied.remove(tracker.name());
+            }
+        }
+    }
+
+    public void evictPlayer(UUID playerUUID) {
+        viewers.remove(playerUUID);
+    }
+
+    /**
+     * Bone sets of models may change on reload, so which bones each tier hides is worked out again.
+     */
+    public void onReload() {
+        boneTiers.clear();
+    }
+
+    public void clear() {
+        viewers.clear();
+        boneTiers.clear();
+    }
+
+    /**
+     * Re-checks viewer distances if a check is due this tick.
+     */
+    public void tick() {
+        if (!enabled || viewers.isEmpty() || Bukkit.getCurrentTick() % checkInterval != 0) {
+            return;
+        }
+        List<TierChange> pending = new ArrayList<>();
+        Iterator<Map.Entry<UUID, Map<UUID, Map<String, Integer>>>> players = viewers.entrySet().iterator();
+        while (players.hasNext()) {
+            Map.Entry<UUID, Map<UUID, Map<String, Integer>>> entry = players.next();
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (player == null) {
+                players.remove();
+                continue;
+            }
+            pending.clear();
+            collectChanges(player, entry.getValue(), pending);
+            if (!pending.isEmpty()) {
+                applyChanges(player, entry.getValue(), pending);
+            }
+        }
+    }
+
+    private void collectChanges(Player player, Map<UUID, Map<String, Integer>> tracked, List<TierChange> pending) {
+        Location playerLocation = player.getLocation();
+        World world = playerLocation.getWorld();
+        for (Map.Entry<UUID, Map<String, Integer>> entry : tracked.entrySet()) {
+            Collection<EntityTracker> trackers = service.getBackend().trackers(entry.getKey());
+            if (trackers.isEmpty()) {
+                continue;
+            }
+            Entity entity = Bukkit.getEntity(entry.getKey());
+            if (entity == null || entity.getWorld() != world) {
+                continue;
+            }
+            double distanceSquared = entity.getLocation().distanceSquared(playerLocation);
+            int tier = getTier(distanceSquared);
+            Map<String, Integer> applied = entry.getValue();
+            for (EntityTracker tracker : trackers) {
+                int appliedTier = applied.getOrDefault(tracker.name(), NO_TIER);
+                if (tier != appliedTier) {
+                    pending.add(new TierChange(tracker, appliedTier, tier, distanceSquared));
+                }
+            }
+        }
+    }
+
+    private void applyChanges(Player player, Map<UUID, Map<String, Integer>> tracked, List<TierChange> pending) {
+        // The nearest models are the most noticeable, so they get the budget first.
+        pending.sort(Comparator.comparingDouble(TierChange::distanceSquared));
+        int budget = maxChangesPerCheck;
+        for (int i = 0; i < pending.size(); i++) {
+            if (budget <= 0) {
+                deferred.add(pending.size() - i);
+                return;
+            }
+            TierChange change = pending.get(i);
+            EntityTracker tracker = change.tracker();
+            budget -= applyTier(player, tracker, change.fromTier(), change.toTier());
+            Map<String, Integer> applied = tracked.get(tracker.registry().uuid());
+            if (change.toTier() == NO_TIER) {
+                applied.remove(tracker.name());
+            } else {
+                applied.put(tracker.name(), change.toTier());
+            }
+        }
+    }
+
+    private int applyTier(Player player, EntityTracker tracker, int fromTier, int toTier) {
+        Map<String, Integer> hiddenAt = getBoneTiers(tracker);
+        if (hiddenAt.isEmpty()) {
+            return 0;
+        }
+        int changed = 0;
+        for (Map.Entry<String, Integer> bone : hiddenAt.entrySet()) {
+            int tier = bone.getValue();
+            boolean wasHidden = fromTier >= tier;
+            boolean hidden = toTier >= tier;
+            if (wasHidden == hidden) {
+                continue;
+            }
+            RenderedBone renderedBone = tracker.bone(bone.getKey());
+            if (renderedBone != null) {
+                visibility.setLodHidden(tracker, renderedBone, player, hidden);
+                changed++;
+            }
+        }
+        changes.add(changed);
+        return changed;
+    }
+
+    private int getTier(double distanceSquared) {
+        int tier = NO_TIER;
+        for (int i = 0; i < tiers.size(); i++) {
+            if (distanceSquared < tiers.get(i).distanceSquared()) {
+                break;
+            }
+            tier = i;
+        }
+        return tier;
+    }
+
+    private Map<String, Integer> getBoneTiers(EntityTracker tracker) {
+        Map<String, Integer> cached = boneTiers.get(tracker.name());
+        if (cached != null) {
+            return cached;
+        }
+        Map<String, Integer> hiddenAt = new HashMap<>();
+        for (RenderedBone bone : tracker.bones()) {
+            String boneName = bone.name().name();
+            for (int i = 0; i < tiers.size(); i++) {
+                if (tiers.get(i).hides(boneName)) {
+                    hiddenAt.put(boneName, i);
+                    break;
+                }
+            }
+        }
+        Map<String, Integer> result = hiddenAt.isEmpty() ? Collections.emptyMap() : hiddenAt;
+        boneTiers.put(tracker.name(), result);
+        return result;
+    }
+
+    private static Pattern compileWildcard(String wildcard) {
+        StringBuilder regex = new StringBuilder();
+        int start = 0;
+        int star;
+        while ((star = wildcard.indexOf('*', start)) >= 0) {
+            regex.append(Pattern.quote(wildcard.substring(start, star))).append(".*");
+            start = star + 1;
+        }
+        regex.append(Pattern.quote(wildcard.substring(start)));
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+    }
+
+    public MapTag getStatistics() {
+        MapTag map = new MapTag();
+        map.putObject("enabled", new ElementTag(enabled));
+        map.putObject("tiers", new ElementTag(tiers.size()));
+        map.putObject("viewers", new ElementTag(viewers.size()));
+        map.putObject("bone_changes", new ElementTag(changes.sum()));
+        map.putObject("deferred_changes", new ElementTag(deferred.sum()));
+        return map;
+    }
+
+    private record Tier(double distanceSquared, List<Pattern> bonePatterns) {
+
+        private boolean hides(String boneName) {
+            for (Pattern pattern : bonePatterns) {
+                if (pattern.matcher(boneName).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private record TierChange(EntityTracker tracker, int fromTier, int toTier, double distanceSquared) {}
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.services;
+
+import com.denizenscript.denizencore.objects.core.ElementTag;
+import com.denizenscript.denizencore.objects.core.MapTag;
+import kr.toxicity.model.api.tracker.EntityTracker;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.joml.Vector3f;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Turns bones towards an entity or a location. Each tick, the direction from every constrained bone to its target
+ * is worked out relative to the facing of the model, clamped to the constraint's angle limits,
+ * and approached at no more than its turn speed. The resulting aim is applied by the bone's rotation modifier,
+ * before the animation and any custom rotation.
+ * Angles are measured from the model's facing direction, so they are meant for bones whose parents do not turn on their own.
+ * Constraints are only read and stepped on the server thread; each new aim is handed to the bone's controller as a whole,
+ * so render threads never see it half-updated.
+ */
+public class LookAtService {
+
+    private final Map<BoneController, Constraint> constraints = new IdentityHashMap<>();
+    private final Location entityScratch = new Location(null, 0, 0, 0);
+    private final Location targetScratch = new Location(null, 0, 0, 0);
+
+    /**
+     * The target and limits of a constraint, ready to be applied to any number of bones.
+     *
+     * @param targetEntity The entity to look at, or null to look at the target location. Living entities are looked at by their eyes.
+     * @param targetLocation The location to look at, used when there is no target entity.
+     * @param maxYaw How far the bone may turn left or right of the model's facing, in degrees.
+     * @param maxPitch How far the bone may turn up or down, in degrees.
+     * @param turnSpeed How far the bone may turn per tick, in degrees, or 0 to turn instantly.
+     */
+    public record Spec(UUID targetEntity, Location targetLocation, float maxYaw, float maxPitch, float turnSpeed) {}
+
+    public void start(BoneController controller, Spec spec) {
+        Constraint constraint = constraints.get(controller);
+        if (constraint == null) {
+            constraints.put(controller, new Constraint(spec));
+        } else {
+            // Keep the current aim, so changing targets turns smoothly from where the bone points now.
+            constraint.spec = spec;
+        }
+    }
+
+    /**
+     * Removes the constraint of a bone, returning it to its animated rotation.
+     *
+     * @return Whether the bone had a constraint.
+     */
+    public boolean stop(BoneController controller) {
+        if (constraints.remove(controller) == null) {
+            return false;
+        }
+        controller.clearAim();
+        return true;
+    }
+
+    public void tick() {
+        if (constraints.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<BoneController, Constraint> entry : constraints.entrySet()) {
+            step(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void step(BoneController controller, Constraint constraint) {
+        Spec spec = constraint.spec;
+        Entity source = Bukkit.getEntity(controller.getTracker().registry().uuid());
+        if (source == null) {
+            return;
+        }
+        Location origin = source.getLocation(entityScratch);
+        Location target = getTarget(spec, origin.getWorld());
+        if (target == null) {
+            // Hold the current aim until the target is back.
+            return;
+        }
+        float bodyYaw = source instanceof LivingEntity living ? living.getBodyYaw() : origin.getYaw();
+        Vector3f pivot = controller.getBone().worldPosition();
+        double dx = target.getX() - (origin.getX() + pivot.x);
+        double dy = target.getY() - (origin.getY() + pivot.y);
+        double dz = target.getZ() - (origin.getZ() + pivot.z);
+        if (dx == 0 && dy == 0 && dz == 0) {
+            return;
+        }
+        float worldYaw = (float) Math.toDegrees(Math.atan2(-dx, dz));
+        float yaw = clamp(wrapDegrees(worldYaw - bodyYaw), spec.maxYaw());
+        float pitch = clamp((float) -Math.toDegrees(Math.atan2(dy, Math.sqrt(dx * dx + dz * dz))), spec.maxPitch());
+        if (constraint.aimed) {
+            yaw = approach(constraint.yaw, yaw, spec.turnSpeed());
+            pitch = approach(constraint.pitch, pitch, spec.turnSpeed());
+            if (yaw == constraint.yaw && pitch == constraint.pitch) {
+                return;
+            }
+        }
+        constraint.yaw = yaw;
+        constraint.pitch = pitch;
+        constraint.aimed = true;
+        controller.setAim(yaw, pitch);
+    }
+
+    private Location getTarget(Spec spec, World world) {
+        if (spec.targetEntity() == null) {
+            Location location = spec.targetLocation();
+            return location.getWorld() == world ? location : null;
+        }
+        Entity entity = Bukkit.getEntity(spec.targetEntity());
+        if (entity == null || entity.getWorld() != world) {
+            return null;
+        }
+        Location location = entity.getLocation(targetScratch);
+        if (entity instanceof LivingEntity living) {
+            location.setY(location.getY() + living.getEyeHeight());
+        }
+        return location;
+    }
+
+    private static float approach(float current, float desired, float maxStep) {
+        if (maxStep <= 0) {
+            return desired;
+        }
+        float delta = wrapDegrees(desired - current);
+        if (Math.abs(delta) <= maxStep) {
+            return desired;
+        }
+        return current + Math.copySign(maxStep, delta);
+    }
+
+    private static float clamp(float angle, float limit) {
+        return Math.max(-limit, Math.min(limit, angle));
+    }
+
+    private static float wrapDegrees(float degrees) {
+        float wrapped = degrees % 360f;
+        if (wrapped >= 180f) {
+            wrapped -= 360f;
+        } else if (wrapped < -180f) {
+            wrapped += 360f;
+        }
+        return wrapped;
+    }
+
+    public void evictTracker(EntityTracker tracker) {
+        if (!constraints.isEmpty()) {
+            constraints.keySet().removeIf(controller -> release(controller, controller.getTracker() == tracker));
+        }
+    }
+
+    public void evictEntities(Set<UUID> entityUUIDs) {
+        if (constraints.isEmpty()) {
+            return;
+        }
+        constraints.keySet().removeIf(controller -> release(controller, entityUUIDs.contains(controller.getTracker().registry().uuid())));
+    }
+
+    /**
+     * Clears the aim of a bone whose constraint is dropped, as a tracker that outlives its cached controllers
+     * would otherwise keep the last aim in its rotation modifier with nothing left to clear it.
+     */
+    private static boolean release(BoneController controller, boolean evicted) {
+        if (evicted) {
+            controller.clearAim();
+        }
+        return evicted;
+    }
+
+    public void clear() {
+        constraints.clear();
+    }
+
+    public MapTag getStatistics() {
+        MapTag map = new MapTag();
+        map.putObject("active", new ElementTag(constraints.size()));
+        return map;
+    }
+
+    private static final class Constraint {
+        private Spec spec;
+        private float yaw;
+        private float pitch;
+        private boolean aimed;
+
+        private Constraint(Spec spec) {
+            this.spec = spec;
+        }
+    }
+}
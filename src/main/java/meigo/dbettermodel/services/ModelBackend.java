@@ -0,0 +1,57 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.services;
+
+import kr.toxicity.model.api.animation.AnimationModifier;
+import kr.toxicity.model.api.tracker.EntityTracker;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * The registry and model manager calls DBetterModel makes into BetterModel.
+ * Services and commands go through this interface rather than the static BetterModel API,
+ * so they can be driven by an in-memory implementation without a running server.
+ */
+public interface ModelBackend {
+
+    /**
+     * @return The tracker of the given model on the entity, or null if the entity has no such model.
+     */
+    EntityTracker tracker(UUID entityUUID, String modelName);
+
+    /**
+     * @return All trackers on the entity, or an empty collection if it has no models.
+     */
+    Collection<EntityTracker> trackers(UUID entityUUID);
+
+    boolean hasRenderer(String modelName);
+
+    /**
+     * Attaches a model to the entity.
+     *
+     * @return False if no renderer with that name exists.
+     */
+    boolean create(String modelName, Entity entity);
+
+    /**
+     * Removes a model from the entity.
+     *
+     * @return False if the entity does not have that model.
+     */
+    boolean remove(UUID entityUUID, String modelName);
+
+    boolean hasLimb(String modelName);
+
+    /**
+     * @return The names of all player limb models.
+     */
+    Collection<String> limbNames();
+
+    boolean animateLimb(Player player, String modelName, String animation, AnimationModifier modifier);
+}
@@ -5,36 +5,64 @@
 
 package meigo.dbettermodel.services;
 
-import com.denizenscript.denizen.objects.PlayerTag;
-import com.denizenscript.denizencore.DenizenCore;
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import com.destroystokyo.paper.event.server.ServerTickStartEvent;
+import io.papermc.paper.event.player.PlayerTrackEntityEvent;
+import io.papermc.paper.event.player.PlayerUntrackEntityEvent;
 import com.denizenscript.denizencore.objects.Mechanism;
-import com.denizenscript.denizencore.objects.core.ListTag;
-import kr.toxicity.model.api.BetterModel;
-import kr.toxicity.model.api.animation.AnimationModifier;
+import com.denizenscript.denizencore.objects.core.ElementTag;
+import com.denizenscript.denizencore.objects.core.MapTag;
+import kr.toxicity.model.api.bone.RenderedBone;
 import kr.toxicity.model.api.event.CloseTrackerEvent;
+import kr.toxicity.model.api.event.CreateTrackerEvent;
+import kr.toxicity.model.api.event.PluginEndReloadEvent;
+import kr.toxicity.model.api.nms.HitBox;
+import kr.toxicity.model.api.nms.ModelDisplay;
 import kr.toxicity.model.api.tracker.EntityTracker;
 import kr.toxicity.model.api.tracker.Tracker;
+import meigo.dbettermodel.DBetterModel;
 import meigo.dbettermodel.denizen.objects.BMBoneTag;
+import meigo.dbettermodel.util.DBMProfiler;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
-import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.EntitiesUnloadEvent;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.util.Vector;
 import org.joml.Vector3f;
 
-import java.util.Optional;
-import java.util.UUID;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.UUID;
 import java.util.function.Consumer;
 
 public class ModelService implements Listener {
 
     private static final ModelService INSTANCE = new ModelService();
-    private final Map<String, BoneController> boneControllerCache = new ConcurrentHashMap<>();
+    private static final String ALL_BONES = "";
+    private final TrackerBoneIndex<BoneController> boneControllers = new TrackerBoneIndex<>();
     private final BoneMechanismHandler mechanismHandler = new BoneMechanismHandler();
+    private final TrackerUpdateQueue updateQueue = new TrackerUpdateQueue();
+    private final TrackerBoneIndex<BoneTransform> boneTransforms = new TrackerBoneIndex<>();
+    private final TrackerBoneIndex<BMBoneTag> boneTags = new TrackerBoneIndex<>();
+    // One bones map per model, stored under ALL_BONES in place of a bone name.
+    private final TrackerBoneIndex<MapTag> bonesMaps = new TrackerBoneIndex<>();
+    // Indexed by channel name in place of a bone name.
+    private final TrackerBoneIndex<AnimationSpeed> animationSpeeds = new TrackerBoneIndex<>();
+    private final LimbModelIndex limbIndex = new LimbModelIndex(this);
+    private final BoneVisibilityManager visibility = new BoneVisibilityManager(this);
+    private final LodService lod = new LodService(this, visibility);
+    private final ModelSpawnQueue spawnQueue = new ModelSpawnQueue(this);
+    private final TweenService tweens = new TweenService();
+    private final LookAtService lookAt = new LookAtService();
+    private final BoneFollowerService followers = new BoneFollowerService(this);
+    private ModelBackend backend = new BetterModelBackend();
 
     private ModelService() {}
 
@@ -43,92 +71,562 @@ public class ModelService implements Listener {
     }
 
     public void initialize(JavaPlugin plugin) {
+        updateQueue.setEnabled(DBetterModel.coalesceModelUpdates);
+        limbIndex.refresh();
+        lod.configure(plugin.getConfig().getConfigurationSection("options.lod"));
+        spawnQueue.setBudget(plugin.getConfig().getDouble("options.spawn-queue.budget-ms", 5));
         Bukkit.getPluginManager().registerEvents(this, plugin);
     }
 
     public void shutdown() {
-        boneControllerCache.clear();
+        spawnQueue.clear();
+        tweens.clear();
+        lookAt.clear();
+        followers.clear();
+        updateQueue.flush();
+        boneControllers.clear();
+        boneTransforms.clear();
+        boneTags.clear();
+        bonesMaps.clear();
+        animationSpeeds.clear();
+        limbIndex.clear();
+        lod.clear();
+        visibility.clear();
+    }
+
+    public TrackerUpdateQueue getUpdateQueue() {
+        return updateQueue;
+    }
+
+    public ModelBackend getBackend() {
+        return backend;
+    }
+
+    public LimbModelIndex getLimbIndex() {
+        return limbIndex;
+    }
+
+    public BoneVisibilityManager getVisibility() {
+        return visibility;
+    }
+
+    public LodService getLod() {
+        return lod;
+    }
+
+    public ModelSpawnQueue getSpawnQueue() {
+        return spawnQueue;
+    }
+
+    public TweenService getTweens() {
+        return tweens;
+    }
+
+    public LookAtService getLookAt() {
+        return lookAt;
+    }
+
+    public BoneFollowerService getFollowers() {
+        return followers;
+    }
+
+    /**
+     * Replaces the BetterModel backend, e.g. with an in-memory one for benchmarks and soak tests.
+     * Drops every cached controller, as they belong to the previous backend's trackers.
+     */
+    public void setBackend(ModelBackend backend) {
+        this.backend = backend;
+        updateQueue.clear();
+        tweens.clear();
+        lookAt.clear();
+        followers.clear();
+        boneControllers.clear();
+        boneTransforms.clear();
+        boneTags.clear();
+        bonesMaps.clear();
+        animationSpeeds.clear();
+        lod.clear();
+        visibility.clear();
+        limbIndex.refresh();
+    }
+
+    @EventHandler
+    public void onTickStart(ServerTickStartEvent event) {
+        spawnQueue.process();
+        tweens.tick();
+        lookAt.tick();
+        followers.tick();
+    }
+
+    @EventHandler
+    public void onTickEnd(ServerTickEndEvent event) {
+        updateQueue.flush();
+        lod.tick();
+        visibility.flush();
+    }
+
+    @EventHandler
+    public void onPlayerTrackEntity(PlayerTrackEntityEvent event) {
+        visibility.onTrack(event.getPlayer(), event.getEntity());
+        lod.onTrack(event.getPlayer(), event.getEntity());
+    }
+
+    @EventHandler
+    public void onPlayerUntrackEntity(PlayerUntrackEntityEvent event) {
+        visibility.onUntrack(event.getPlayer(), event.getEntity());
+        lod.onUntrack(event.getPlayer(), event.getEntity());
+    }
+
+    @EventHandler
+    public void onTrackerCreate(CreateTrackerEvent event) {
+        // Viewers are only tracked on the main thread.
+        if (event.getTracker() instanceof EntityTracker entityTracker && Bukkit.isPrimaryThread()) {
+            lod.onModelCreated(entityTracker);
+        }
     }
 
     @EventHandler
     public void onTrackerClose(CloseTrackerEvent event) {
         Tracker tracker = event.getTracker();
         if (tracker instanceof EntityTracker entityTracker) {
-            String prefix = entityTracker.registry().uuid() + "," + entityTracker.name() + ",";
-            boneControllerCache.keySet().removeIf(key -> key.startsWith(prefix));
+            evictTracker(entityTracker);
+        }
+    }
+
+    public void evictTracker(EntityTracker tracker) {
+        boneControllers.removeModel(tracker.registry().uuid(), tracker.name());
+        boneTransforms.removeModel(tracker.registry().uuid(), tracker.name());
+        boneTags.removeModel(tracker.registry().uuid(), tracker.name());
+        bonesMaps.removeModel(tracker.registry().uuid(), tracker.name());
+        animationSpeeds.removeModel(tracker.registry().uuid(), tracker.name());
+        limbIndex.evictTracker(tracker.registry().uuid(), tracker);
+        visibility.evictTracker(tracker);
+        tweens.evictTracker(tracker);
+        lookAt.evictTracker(tracker);
+        followers.evictTracker(tracker);
+        lod.evictTracker(tracker);
+        updateQueue.discard(tracker);
+    }
+
+    @EventHandler
+    public void onBetterModelReload(PluginEndReloadEvent event) {
+        limbIndex.refresh();
+        bonesMaps.clear();
+        lod.onReload();
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        limbIndex.evictPlayer(event.getPlayer().getUniqueId());
+        visibility.evictPlayer(event.getPlayer());
+        lod.evictPlayer(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler
+    public void onEntitiesUnload(EntitiesUnloadEvent event) {
+        List<Entity> entities = event.getEntities();
+        if (entities.isEmpty()) {
+            return;
+        }
+        Set<UUID> uuids = new HashSet<>(entities.size() * 2);
+        for (Entity entity : entities) {
+            uuids.add(entity.getUniqueId());
+        }
+        evictEntities(uuids);
+    }
+
+    /**
+     * Drops every cached controller of the given entities in a single pass.
+     * Used when many trackers close in the same tick (e.g. a chunk unload),
+     * so the per-tracker close events that follow find nothing left to remove.
+     *
+     * @param entityUUIDs The UUIDs of the entities whose controllers should be dropped.
+     * @return The number of entities that had cached controllers.
+     */
+    public int evictEntities(Collection<UUID> entityUUIDs) {
+        // Services that scan their own entries test each one against the set, so it is built once for all of them.
+        Set<UUID> uuids = entityUUIDs instanceof Set<UUID> set ? set : new HashSet<>(entityUUIDs);
+        boneTransforms.removeEntities(uuids);
+        boneTags.removeEntities(uuids);
+        visibility.evictEntities(uuids);
+        spawnQueue.evictEntities(uuids);
+        tweens.evictEntities(uuids);
+        lookAt.evictEntities(uuids);
+        followers.evictEntities(uuids);
+        bonesMaps.removeEntities(uuids);
+        animationSpeeds.removeEntities(uuids);
+        return boneControllers.removeEntities(uuids);
+    }
+
+    /**
+     * Resolves a tracker without touching the controller cache.
+     */
+    public EntityTracker findTracker(UUID entityUUID, String modelId) {
+        return backend.tracker(entityUUID, modelId);
+    }
+
+    /**
+     * Resolves a bone for read-only access. Unlike {@link #getBoneController}, this never
+     * creates a controller, so reading a bone leaves its rendering untouched.
+     */
+    public RenderedBone findBone(UUID entityUUID, String modelId, String boneId) {
+        EntityTracker tracker = findTracker(entityUUID, modelId);
+        return tracker != null ? tracker.bone(boneId) : null;
+    }
+
+    private BoneController getBoneController(UUID entityUUID, String modelId, String boneId) {
+        BoneController cached = boneControllers.get(entityUUID, modelId, boneId);
+        if (cached != null) {
+            return cached;
+        }
+        EntityTracker tracker = findTracker(entityUUID, modelId);
+        if (tracker == null) {
+            return null;
+        }
+        RenderedBone bone = tracker.bone(boneId);
+        if (bone == null) {
+            return null;
+        }
+        return boneControllers.computeIfAbsent(entityUUID, modelId, boneId, () -> new BoneController(tracker, bone, updateQueue, visibility));
+    }
+
+    private BoneController getBoneController(EntityTracker tracker, Map<String, BoneController> controllers, RenderedBone bone) {
+        String boneName = bone.name().name();
+        BoneController controller = controllers.get(boneName);
+        if (controller == null) {
+            controller = controllers.computeIfAbsent(boneName, k -> new BoneController(tracker, bone, updateQueue, visibility));
+        }
+        return controller;
+    }
+
+    // --- Bone Tags ---
+
+    /**
+     * Returns the shared tag of a bone of a live tracker, so repeated references to the same bone reuse one instance.
+     * Shared tags are dropped when the tracker closes. The bone is not checked, so callers must only pass existing bone names.
+     */
+    public BMBoneTag getBoneTag(EntityTracker tracker, String boneName) {
+        UUID entityUUID = tracker.registry().uuid();
+        String modelName = tracker.name();
+        return boneTags.computeIfAbsent(entityUUID, modelName, boneName, () -> new BMBoneTag(entityUUID, modelName, boneName));
+    }
+
+    /**
+     * Returns the shared bone tags of a tracker, by bone name, for callers that resolve many bones of the same model.
+     * Missing entries should be added with {@link Map#computeIfAbsent}.
+     */
+    public Map<String, BMBoneTag> getBoneTags(EntityTracker tracker) {
+        return boneTags.getOrCreateModel(tracker.registry().uuid(), tracker.name());
+    }
+
+    /**
+     * Returns a map of every bone of a tracker, keyed by bone name, with shared bone tags as values.
+     * The bone set of a tracker never changes, so the map is built once per tracker and a copy is handed out on each call.
+     */
+    public MapTag getBonesMap(EntityTracker tracker) {
+        UUID entityUUID = tracker.registry().uuid();
+        MapTag bones = bonesMaps.get(entityUUID, tracker.name(), ALL_BONES);
+        if (bones == null) {
+            bones = buildBonesMap(tracker);
+            // Only cache for live trackers, so a read racing a close does not leave an entry behind.
+            if (findTracker(entityUUID, tracker.name()) == tracker) {
+                bonesMaps.getOrCreateModel(entityUUID, tracker.name()).put(ALL_BONES, bones);
+            }
+        }
+        return bones.duplicate();
+    }
+
+    private MapTag buildBonesMap(EntityTracker tracker) {
+        MapTag map = new MapTag();
+        UUID entityUUID = tracker.registry().uuid();
+        String modelName = tracker.name();
+        Map<String, BMBoneTag> tags = getBoneTags(tracker);
+        for (RenderedBone bone : tracker.bones()) {
+            String boneName = bone.name().name();
+            map.putObject(boneName, tags.computeIfAbsent(boneName, name -> new BMBoneTag(entityUUID, modelName, name)));
         }
+        return map;
+    }
+
+    // --- Animation Speeds ---
+
+    /**
+     * Returns the speed channel of a model, creating it with the given initial speed if it does not exist yet.
+     */
+    public AnimationSpeed getAnimationSpeed(EntityTracker tracker, String channel, float initialSpeed) {
+        return animationSpeeds.computeIfAbsent(tracker.registry().uuid(), tracker.name(), channel, () -> new AnimationSpeed(initialSpeed));
+    }
+
+    /**
+     * Returns the speed channel of a model, or null if it was never set or bound.
+     */
+    public AnimationSpeed findAnimationSpeed(EntityTracker tracker, String channel) {
+        return animationSpeeds.get(tracker.registry().uuid(), tracker.name(), channel);
+    }
+
+    public void setAnimationSpeed(EntityTracker tracker, String channel, float speed) {
+        getAnimationSpeed(tracker, channel, speed).set(speed);
+    }
+
+    // --- Statistics ---
+    public long getControllerLookupCount() {
+        return boneControllers.getLookupCount();
+    }
+
+    public long getControllerMissCount() {
+        return boneControllers.getMissCount();
+    }
+
+    public int getCachedControllerCount() {
+        return boneControllers.size();
+    }
+
+    public long getRequestedUpdateCount() {
+        return updateQueue.getRequestedCount();
+    }
+
+    public long getMergedUpdateCount() {
+        return updateQueue.getMergedCount();
     }
 
-    private Optional<BoneController> getBoneController(UUID entityUUID, String modelId, String boneId) {
-        return BetterModel.registry(entityUUID)
-                .flatMap(registry -> Optional.ofNullable(registry.tracker(modelId)))
-                .flatMap(tracker -> Optional.ofNullable(tracker.bone(boneId))
-                        .map(bone -> {
-                            String key = entityUUID + "," + modelId + "," + boneId;
-                            return boneControllerCache.computeIfAbsent(key, k -> new BoneController(tracker, bone));
-                        }));
+    public MapTag getStatistics() {
+        MapTag map = new MapTag();
+        map.putObject("cached_controllers", new ElementTag(getCachedControllerCount()));
+        map.putObject("controller_lookups", new ElementTag(getControllerLookupCount()));
+        map.putObject("controller_misses", new ElementTag(getControllerMissCount()));
+        map.putObject("update_requests", new ElementTag(getRequestedUpdateCount()));
+        map.putObject("merged_updates", new ElementTag(getMergedUpdateCount()));
+        map.putObject("hidden_bones", new ElementTag(visibility.getHiddenBoneCount()));
+        map.putObject("lod", lod.getStatistics());
+        map.putObject("spawn_queue", spawnQueue.getStatistics());
+        map.putObject("tweens", tweens.getStatistics());
+        map.putObject("look_at", lookAt.getStatistics());
+        map.putObject("followers", followers.getStatistics());
+        return map;
     }
 
     // --- Tag Getters ---
     public Location getBoneWorldLocation(UUID entityUUID, String modelId, String boneId) {
-        return getBoneController(entityUUID, modelId, boneId)
-                .map(BoneController::getWorldLocation)
-                .orElse(null);
+        EntityTracker tracker = findTracker(entityUUID, modelId);
+        if (tracker == null) {
+            return null;
+        }
+        RenderedBone bone = tracker.bone(boneId);
+        if (bone == null) {
+            return null;
+        }
+        Vector3f worldPos = bone.worldPosition();
+        return new Location(tracker.sourceEntity().location().getWorld(), worldPos.x(), worldPos.y(), worldPos.z());
     }
 
     public Vector3f getBoneWorldRotationEuler(UUID entityUUID, String modelId, String boneId) {
-        return getBoneController(entityUUID, modelId, boneId)
-                .map(BoneController::getWorldRotationEuler)
-                .orElse(null);
+        RenderedBone bone = findBone(entityUUID, modelId, boneId);
+        return bone != null ? bone.worldRotation() : null;
     }
 
     public boolean isBoneVisible(UUID entityUUID, String modelId, String boneId) {
-        return getBoneController(entityUUID, modelId, boneId)
-                .map(BoneController::isVisible)
-                .orElse(false);
+        RenderedBone bone = findBone(entityUUID, modelId, boneId);
+        if (bone == null) {
+            return false;
+        }
+        ModelDisplay display = bone.getDisplay();
+        return display != null && !display.invisible();
+    }
+
+    /**
+     * Returns the bone position in the world, with its model-space offset rotated by the entity's yaw.
+     * The result is computed at most once per bone per tick and must not be modified.
+     */
+    public Location getBoneAbsoluteLocation(UUID entityUUID, String modelId, String boneId) {
+        int tick = Bukkit.getCurrentTick();
+        BoneTransform transform = boneTransforms.get(entityUUID, modelId, boneId);
+        if (transform != null && transform.absoluteTick == tick) {
+            return transform.absolute;
+        }
+        Location offset = getBoneWorldLocation(entityUUID, modelId, boneId);
+        if (offset == null) {
+            return null;
+        }
+        Entity entity = Bukkit.getEntity(entityUUID);
+        if (entity == null) {
+            return null;
+        }
+        Location entityLoc = entity.getLocation();
+        Vector vec = new Vector(offset.getX(), offset.getY(), offset.getZ());
+        vec.rotateAroundY(Math.toRadians(-entityLoc.getYaw()));
+        Location location = entityLoc.add(vec);
+        if (transform == null) {
+            transform = boneTransforms.computeIfAbsent(entityUUID, modelId, boneId, BoneTransform::new);
+        }
+        transform.absolute = location;
+        transform.absoluteTick = tick;
+        return location;
+    }
+
+    /**
+     * Returns the bone position in the world, facing along the bone's hitbox rotation.
+     * The result is computed at most once per bone per tick and must not be modified.
+     */
+    public Location getBoneRealLocation(UUID entityUUID, String modelId, String boneId) {
+        int tick = Bukkit.getCurrentTick();
+        BoneTransform transform = boneTransforms.get(entityUUID, modelId, boneId);
+        if (transform != null && transform.realTick == tick) {
+            return transform.real;
+        }
+        RenderedBone bone = findBone(entityUUID, modelId, boneId);
+        if (bone == null) {
+            return null;
+        }
+        Entity entity = Bukkit.getEntity(entityUUID);
+        if (entity == null) {
+            return null;
+        }
+        Vector3f pos = bone.worldPosition();
+        Vector3f direction = new Vector3f(0, 0, 1).rotate(bone.hitBoxViewRotation());
+        Location location = entity.getLocation().add(pos.x, pos.y, pos.z);
+        location.setDirection(new Vector(direction.x, direction.y, direction.z));
+        if (transform == null) {
+            transform = boneTransforms.computeIfAbsent(entityUUID, modelId, boneId, BoneTransform::new);
+        }
+        transform.real = location;
+        transform.realTick = tick;
+        return location;
     }
 
     // --- Mechanism Handlers ---
     public void adjustBone(BMBoneTag boneTag, Mechanism mechanism) {
-        getBoneController(boneTag.getEntityUUID(), boneTag.getModelName(), boneTag.getBoneName())
-                .ifPresent(controller -> mechanismHandler.handle(controller, mechanism));
+        BoneController controller = getBoneController(boneTag.getEntityUUID(), boneTag.getModelName(), boneTag.getBoneName());
+        if (controller != null) {
+            stopTweenFor(controller, mechanism);
+            mechanismHandler.handle(controller, mechanism);
+        }
+    }
+
+    /**
+     * Applies a bone mechanism to every bone of a model. The value is parsed once,
+     * bones are resolved straight from the tracker, and the model receives a single update.
+     */
+    public void adjustModel(EntityTracker tracker, Mechanism mechanism) {
+        long start = DBMProfiler.start();
+        Consumer<BoneController> action = mechanismHandler.compile(mechanism);
+        if (action == null) {
+            return;
+        }
+        Map<String, BoneController> controllers = boneControllers.getOrCreateModel(tracker.registry().uuid(), tracker.name());
+        updateQueue.batch(tracker, () -> {
+            for (RenderedBone bone : tracker.bones()) {
+                BoneController controller = getBoneController(tracker, controllers, bone);
+                stopTweenFor(controller, mechanism);
+                action.accept(controller);
+            }
+        });
+        DBMProfiler.record(DBMProfiler.MODEL_MECHANISM, mechanism.getName(), start);
+    }
+
+    /**
+     * A mechanism that sets a tweened value takes over from the tween.
+     */
+    private void stopTweenFor(BoneController controller, Mechanism mechanism) {
+        if (!tweens.isEmpty()) {
+            TweenService.Property property = TweenService.Property.byName(mechanism.getName());
+            if (property != null) {
+                tweens.cancel(controller, property);
+            }
+        }
+    }
+
+    // --- Tweens ---
+
+    /**
+     * Starts a tween on a bone.
+     *
+     * @return Whether the bone exists on a live tracker.
+     */
+    public boolean startTween(BMBoneTag boneTag, TweenService.Spec spec) {
+        BoneController controller = getBoneController(boneTag.getEntityUUID(), boneTag.getModelName(), boneTag.getBoneName());
+        if (controller == null) {
+            return false;
+        }
+        tweens.start(controller, spec);
+        return true;
+    }
+
+    /**
+     * Starts the same tween on every bone of a model.
+     *
+     * @return The number of bones the tween was started on.
+     */
+    public int startTween(EntityTracker tracker, TweenService.Spec spec) {
+        Map<String, BoneController> controllers = boneControllers.getOrCreateModel(tracker.registry().uuid(), tracker.name());
+        int count = 0;
+        for (RenderedBone bone : tracker.bones()) {
+            tweens.start(getBoneController(tracker, controllers, bone), spec);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Stops the tweens of a bone, leaving it where it currently is.
+     *
+     * @param property The property to stop, or null to stop every tween of the bone.
+     * @return Whether any tween was stopped.
+     */
+    public boolean stopTween(BMBoneTag boneTag, TweenService.Property property) {
+        BoneController controller = boneControllers.get(boneTag.getEntityUUID(), boneTag.getModelName(), boneTag.getBoneName());
+        return controller != null && tweens.cancel(controller, property);
+    }
+
+    /**
+     * Stops the tweens of every bone of a model.
+     *
+     * @return The number of bones that had a tween stopped.
+     */
+    public int stopTween(EntityTracker tracker, TweenService.Property property) {
+        Map<String, BoneController> controllers = boneControllers.getModel(tracker.registry().uuid(), tracker.name());
+        if (controllers == null) {
+            return 0;
+        }
+        int count = 0;
+        for (BoneController controller : controllers.values()) {
+            if (tweens.cancel(controller, property)) {
+                count++;
+            }
+        }
+        return count;
     }
 
     // --- Command Logic ---
     public void mountEntity(Entity entityToMount, BMBoneTag boneTag) {
-        getBoneController(boneTag.getEntityUUID(), boneTag.getModelName(), boneTag.getBoneName())
-                .ifPresent(controller -> controller.mount(entityToMount));
+        HitBox hitBox = findHitBox(boneTag);
+        if (hitBox != null && hitBox.mountController().canMount()) {
+            hitBox.mount(entityToMount);
+        }
     }
 
     public void dismountEntity(Entity entityToDismount, BMBoneTag boneTag) {
-        getBoneController(boneTag.getEntityUUID(), boneTag.getModelName(), boneTag.getBoneName())
-                .ifPresent(controller -> controller.dismount(entityToDismount));
+        HitBox hitBox = findHitBox(boneTag);
+        if (hitBox != null) {
+            hitBox.dismount(entityToDismount);
+        }
     }
 
     public void dismountAll(BMBoneTag boneTag) {
-        getBoneController(boneTag.getEntityUUID(), boneTag.getModelName(), boneTag.getBoneName())
-                .ifPresent(BoneController::dismountAll);
+        HitBox hitBox = findHitBox(boneTag);
+        if (hitBox != null) {
+            hitBox.dismountAll();
+        }
     }
 
-    public void playAnimationForPlayers(EntityTracker tracker, String animation, AnimationModifier modifier, ListTag players) {
-        if (players == null || players.isEmpty()) {
-            tracker.animate(bone -> true, animation, modifier, () -> {});
-            return;
-        }
+    private HitBox findHitBox(BMBoneTag boneTag) {
+        RenderedBone bone = findBone(boneTag.getEntityUUID(), boneTag.getModelName(), boneTag.getBoneName());
+        return bone != null ? bone.getHitBox() : null;
+    }
 
-        Consumer<Player> playForPlayer = player -> {
-            AnimationModifier perPlayerModifier = AnimationModifier.builder()
-                    .start(modifier.start())
-                    .end(modifier.end())
-                    .type(modifier.type())
-                    .speed(modifier.speed())
-                    .override(modifier.override())
-                    .player(player)
-                    .build();
-            tracker.animate(bone -> true, animation, perPlayerModifier, () -> {});
-        };
-
-        players.filter(PlayerTag.class, DenizenCore.implementation.getTagContext((com.denizenscript.denizencore.scripts.ScriptEntry) null))
-                .forEach(p -> playForPlayer.accept(p.getPlayerEntity()));
+    private static final class BoneTransform {
+        private int absoluteTick = -1;
+        private Location absolute;
+        private int realTick = -1;
+        private Location real;
     }
 }
\ No newline at end of file
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.services;
+
+import com.denizenscript.denizencore.objects.core.ElementTag;
+import com.denizenscript.denizencore.objects.core.MapTag;
+import kr.toxicity.model.api.tracker.EntityTracker;
+import meigo.dbettermodel.events.QueuedModelSpawnEvent;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Spreads model creation across ticks. Each tick, queued models are created in priority order
+ * until the time budget from 'options.spawn-queue.budget-ms' in config.yml is used up, with at least one model per tick.
+ * A {@link QueuedModelSpawnEvent} is called for every request that leaves the queue, including cancelled ones,
+ * so scripts waiting on a queued model always continue. Clearing the queue on shutdown calls no events.
+ * Requests are also indexed by entity, so cancelling a model or dropping unloaded entities only touches their own requests;
+ * cancelled requests are flagged and skipped when they reach the head of the queue.
+ * The queue is filled by commands and drained at the start of each tick, both on the server thread, so it is not synchronized.
+ */
+public class ModelSpawnQueue {
+
+    private static final Comparator<Request> ORDER = Comparator.comparingInt((Request request) -> request.priority).reversed()
+            .thenComparingLong(request -> request.sequence);
+
+    private final ModelService service;
+    private final PriorityQueue<Request> queue = new PriorityQueue<>(ORDER);
+    // Entity UUID -> the requests of that entity that are still waiting.
+    private final Map<UUID, List<Request>> byEntity = new HashMap<>();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder cancelledCount = new LongAdder();
+    private long budgetNanos = 5_000_000L;
+    private long nextSequence;
+    private int waiting;
+
+    public ModelSpawnQueue(ModelService service) {
+        this.service = service;
+    }
+
+    public void setBudget(double budgetMillis) {
+        this.budgetNanos = Math.max(0L, (long) (budgetMillis * 1_000_000L));
+    }
+
+    /**
+     * Queues a model to be created on an entity.
+     *
+     * @param priority Higher priorities are created first. Requests of equal priority are created in the order they were queued.
+     * @return The number of requests waiting, including this one.
+     */
+    public int add(Entity entity, String modelName, int priority) {
+        Request request = new Request(entity.getUniqueId(), modelName, priority, nextSequence++, Bukkit.getCurrentTick());
+        queue.add(request);
+        byEntity.computeIfAbsent(request.entityUUID, k -> new ArrayList<>(1)).add(request);
+        return ++waiting;
+    }
+
+    /**
+     * Cancels queued requests for a model on an entity, e.g. because the model was removed or created directly
+     * before its turn came. A {@link QueuedModelSpawnEvent} is called for each cancelled request.
+     *
+     * @return Whether any request was cancelled.
+     */
+    public boolean cancel(UUID entityUUID, String modelName) {
+        List<Request> requests = byEntity.get(entityUUID);
+        if (requests == null) {
+            return false;
+        }
+        List<Request> cancelled = null;
+        for (int i = requests.size() - 1; i >= 0; i--) {
+            Request request = requests.get(i);
+            if (request.modelName.equals(modelName)) {
+                request.cancelled = true;
+                requests.remove(i);
+                waiting--;
+                if (cancelled == null) {
+                    cancelled = new ArrayList<>(1);
+                }
+                cancelled.add(request);
+            }
+        }
+        if (requests.isEmpty()) {
+            byEntity.remove(entityUUID);
+        }
+        if (cancelled == null) {
+            return false;
+        }
+        // Called once the queue is consistent again, as listeners may queue or cancel models themselves.
+        Entity entity = Bukkit.getEntity(entityUUID);
+        for (Request request : cancelled) {
+            drop(request, entity, QueuedModelSpawnEvent.Reason.CANCELLED);
+        }
+        return true;
+    }
+
+    /**
+     * Cancels every queued request of entities that unloaded before their models were created,
+     * calling a {@link QueuedModelSpawnEvent} for each of them.
+     */
+    public void evictEntities(Collection<UUID> entityUUIDs) {
+        if (byEntity.isEmpty()) {
+            return;
+        }
+        List<Request> dropped = null;
+        for (UUID entityUUID : entityUUIDs) {
+            List<Request> requests = byEntity.remove(entityUUID);
+            if (requests != null) {
+                for (Request request : requests) {
+                    request.cancelled = true;
+                }
+                waiting -= requests.size();
+                if (dropped == null) {
+                    dropped = new ArrayList<>();
+                }
+                dropped.addAll(requests);
+            }
+        }
+        if (dropped != null) {
+            for (Request request : dropped) {
+                drop(request, null, QueuedModelSpawnEvent.Reason.UNLOADED);
+            }
+        }
+    }
+
+    public void process() {
+        if (waiting == 0) {
+            // Only cancelled requests can be left; nothing else will ever skip them.
+            queue.clear();
+            return;
+        }
+        long deadline = System.nanoTime() + budgetNanos;
+        Request request;
+        while ((request = queue.poll()) != null) {
+            if (request.cancelled) {
+                continue;
+            }
+            dequeue(request);
+            spawn(request);
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+    }
+
+    private void dequeue(Request request) {
+        List<Request> requests = byEntity.get(request.entityUUID);
+        if (requests != null && requests.remove(request) && requests.isEmpty()) {
+            byEntity.remove(request.entityUUID);
+        }
+        waiting--;
+    }
+
+    private void spawn(Request request) {
+        Entity entity = Bukkit.getEntity(request.entityUUID);
+        ModelBackend backend = service.getBackend();
+        EntityTracker tracker = backend.tracker(request.entityUUID, request.modelName);
+        if (tracker != null) {
+            // Never create a model on top of one that was added some other way while this request waited.
+            callEvent(request, entity, tracker, QueuedModelSpawnEvent.Reason.EXISTING);
+            return;
+        }
+        if (entity != null && entity.isValid() && backend.create(request.modelName, entity)) {
+            tracker = backend.tracker(request.entityUUID, request.modelName);
+        }
+        if (tracker != null) {
+            created.increment();
+            callEvent(request, entity, tracker, QueuedModelSpawnEvent.Reason.CREATED);
+        } else {
+            failed.increment();
+            callEvent(request, entity, null, QueuedModelSpawnEvent.Reason.FAILED);
+        }
+    }
+
+    private void drop(Request request, Entity entity, QueuedModelSpawnEvent.Reason reason) {
+        cancelledCount.increment();
+        callEvent(request, entity, null, reason);
+    }
+
+    private static void callEvent(Request request, Entity entity, EntityTracker tracker, QueuedModelSpawnEvent.Reason reason) {
+        long waited = Bukkit.getCurrentTick() - request.queuedTick;
+        Bukkit.getPluginManager().callEvent(new QueuedModelSpawnEvent(request.entityUUID, entity, request.modelName, tracker, reason, waited));
+    }
+
+    public int size() {
+        return waiting;
+    }
+
+    public void clear() {
+        queue.clear();
+        byEntity.clear();
+        waiting = 0;
+    }
+
+    public MapTag getStatistics() {
+        MapTag map = new MapTag();
+        map.putObject("queued", new ElementTag(waiting));
+        map.putObject("created", new ElementTag(created.sum()));
+        map.putObject("failed", new ElementTag(failed.sum()));
+        map.putObject("cancelled", new ElementTag(cancelledCount.sum()));
+        return map;
+    }
+
+    private static final class Request {
+        private final UUID entityUUID;
+        private final String modelName;
+        private final int priority;
+        private final long sequence;
+        private final int queuedTick;
+        private boolean cancelled;
+
+        private Request(UUID entityUUID, String modelName, int priority, long sequence, int queuedTick) {
+            this.entityUUID = entityUUID;
+            this.modelName = modelName;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.queuedTick = queuedTick;
+        }
+    }
+}
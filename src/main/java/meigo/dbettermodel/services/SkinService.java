@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.services;
+
+import com.denizenscript.denizencore.objects.core.MapTag;
+import com.destroystokyo.paper.profile.ProfileProperty;
+import kr.toxicity.model.api.BetterModel;
+import kr.toxicity.model.api.profile.ModelProfile;
+import kr.toxicity.model.api.skin.SkinData;
+import meigo.dbettermodel.util.AsyncLruCache;
+import org.bukkit.entity.Player;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Resolves player skins for limb parts, caching completed skin data per skin.
+ * Entries are keyed by the texture property of the player's profile, so a player who changes skin
+ * gets the new one on the next lookup instead of after the entry expires.
+ * Configured by the 'options.skin-cache' section of config.yml.
+ */
+public class SkinService {
+
+    private static final SkinService INSTANCE = new SkinService();
+    private final AsyncLruCache<String, SkinData> cache = new AsyncLruCache<>(256, 300_000L);
+
+    private SkinService() {}
+
+    public static SkinService getInstance() {
+        return INSTANCE;
+    }
+
+    public void initialize(int maxSize, long ttlMillis) {
+        cache.configure(maxSize, ttlMillis);
+    }
+
+    public void shutdown() {
+        cache.clear();
+    }
+
+    /**
+     * Returns the completed skin data of a player. Must be called from the main thread,
+     * as the player's profile is read before the skin is resolved asynchronously.
+     */
+    public CompletableFuture<SkinData> getSkin(Player player) {
+        return cache.get(getSkinKey(player), key -> {
+            ModelProfile profile = BetterModel.plugin().nms().profile(player);
+            return BetterModel.plugin().skinManager().complete(profile.asUncompleted());
+        });
+    }
+
+    /**
+     * The signed texture value identifies the skin itself. Players without one, e.g. in offline mode,
+     * fall back to their UUID, as their skin cannot change during the session.
+     */
+    private static String getSkinKey(Player player) {
+        for (ProfileProperty property : player.getPlayerProfile().getProperties()) {
+            if (property.getName().equals("textures")) {
+                return property.getValue();
+            }
+        }
+        return player.getUniqueId().toString();
+    }
+
+    public MapTag getStatistics() {
+        return cache.getStatistics();
+    }
+}
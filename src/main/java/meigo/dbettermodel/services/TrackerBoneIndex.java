@@ -0,0 +1,139 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.services;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A nested index of per-bone values: entity UUID -> model name -> bone name -> value.
+ * Lookups walk the three levels directly, so no composite key is built per call.
+ *
+ * @param <V> The type of value stored for each bone.
+ */
+public class TrackerBoneIndex<V> {
+
+    private final Map<UUID, Map<String, Map<String, V>>> entities = new ConcurrentHashMap<>();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public V get(UUID entityUUID, String modelName, String boneName) {
+        lookups.increment();
+        Map<String, Map<String, V>> models = entities.get(entityUUID);
+        if (models != null) {
+            Map<String, V> bones = models.get(modelName);
+            if (bones != null) {
+                V value = bones.get(boneName);
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public V computeIfAbsent(UUID entityUUID, String modelName, String boneName, Supplier<V> factory) {
+        V value = get(entityUUID, modelName, boneName);
+        if (value != null) {
+            return value;
+        }
+        return getOrCreateModel(entityUUID, modelName).computeIfAbsent(boneName, k -> factory.get());
+    }
+
+    /**
+     * Returns the bone map of one model, creating it if needed, so callers touching
+     * many bones of the same model resolve the entity and model levels only once.
+     */
+    public Map<String, V> getOrCreateModel(UUID entityUUID, String modelName) {
+        return entities.computeIfAbsent(entityUUID, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(modelName, k -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * @return The bone map of one model, or null if nothing is stored for it.
+     */
+    public Map<String, V> getModel(UUID entityUUID, String modelName) {
+        Map<String, Map<String, V>> models = entities.get(entityUUID);
+        return models != null ? models.get(modelName) : null;
+    }
+
+    public boolean containsEntity(UUID entityUUID) {
+        return entities.containsKey(entityUUID);
+    }
+
+    /**
+     * Removes the value of one bone if it is still the given one, dropping the model and entity levels once they are empty.
+     */
+    public boolean remove(UUID entityUUID, String modelName, String boneName, V value) {
+        Map<String, Map<String, V>> models = entities.get(entityUUID);
+        if (models == null) {
+            return false;
+        }
+        Map<String, V> bones = models.get(modelName);
+        if (bones == null || !bones.remove(boneName, value)) {
+            return false;
+        }
+        if (bones.isEmpty()) {
+            models.remove(modelName, bones);
+            if (models.isEmpty()) {
+                entities.remove(entityUUID, models);
+            }
+        }
+        return true;
+    }
+
+    public Map<String, V> removeModel(UUID entityUUID, String modelName) {
+        Map<String, Map<String, V>> models = entities.get(entityUUID);
+        if (models == null) {
+            return null;
+        }
+        Map<String, V> removed = models.remove(modelName);
+        if (models.isEmpty()) {
+            entities.remove(entityUUID, models);
+        }
+        return removed;
+    }
+
+    public Map<String, Map<String, V>> removeEntity(UUID entityUUID) {
+        return entities.remove(entityUUID);
+    }
+
+    public int removeEntities(Iterable<UUID> entityUUIDs) {
+        int removed = 0;
+        for (UUID entityUUID : entityUUIDs) {
+            if (entities.remove(entityUUID) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public void clear() {
+        entities.clear();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<String, Map<String, V>> models : entities.values()) {
+            for (Map<String, V> bones : models.values()) {
+                size += bones.size();
+            }
+        }
+        return size;
+    }
+
+    public long getLookupCount() {
+        return lookups.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+}
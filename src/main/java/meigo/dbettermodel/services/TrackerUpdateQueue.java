@@ -0,0 +1,97 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.services;
+
+import kr.toxicity.model.api.tracker.EntityTracker;
+import org.bukkit.Bukkit;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects trackers that need a forced update and flushes each of them once per tick.
+ * Any number of bone changes made to the same tracker within a tick result in a single
+ * {@link EntityTracker#forceUpdate(boolean)} call.
+ * The dirty set is only touched from the main thread; other threads update immediately.
+ */
+public class TrackerUpdateQueue {
+
+    private final Set<EntityTracker> dirtyTrackers = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final LongAdder requested = new LongAdder();
+    private final LongAdder merged = new LongAdder();
+    private boolean enabled = true;
+    private int batchDepth;
+
+    public void setEnabled(boolean enabled) {
+        if (!enabled) {
+            flush();
+        }
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void markDirty(EntityTracker tracker) {
+        requested.increment();
+        // The batch depth and dirty set belong to the main thread, so other threads never look at them.
+        if (!Bukkit.isPrimaryThread() || (batchDepth == 0 && !enabled)) {
+            tracker.forceUpdate(true);
+            return;
+        }
+        if (!dirtyTrackers.add(tracker)) {
+            merged.increment();
+        }
+    }
+
+    /**
+     * Runs an action that changes many bones of one tracker, collapsing all of its
+     * update requests into exactly one update. With coalescing enabled that update is
+     * sent with the rest of the tick; otherwise it is sent as soon as the action finishes.
+     * Must be called from the main thread.
+     */
+    public void batch(EntityTracker tracker, Runnable action) {
+        batchDepth++;
+        try {
+            action.run();
+        } finally {
+            batchDepth--;
+        }
+        if (batchDepth == 0 && !enabled && dirtyTrackers.remove(tracker)) {
+            tracker.forceUpdate(true);
+        }
+    }
+
+    public void discard(EntityTracker tracker) {
+        dirtyTrackers.remove(tracker);
+    }
+
+    public void flush() {
+        if (dirtyTrackers.isEmpty()) {
+            return;
+        }
+        EntityTracker[] trackers = dirtyTrackers.toArray(new EntityTracker[0]);
+        dirtyTrackers.clear();
+        for (EntityTracker tracker : trackers) {
+            tracker.forceUpdate(true);
+        }
+    }
+
+    public void clear() {
+        dirtyTrackers.clear();
+    }
+
+    public long getRequestedCount() {
+        return requested.sum();
+    }
+
+    public long getMergedCount() {
+        return merged.sum();
+    }
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.services;
+
+import com.denizenscript.denizencore.objects.core.ElementTag;
+import com.denizenscript.denizencore.objects.core.MapTag;
+import kr.toxicity.model.api.tracker.EntityTracker;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves bone rotations, offsets, scales and tints towards a target over a number of ticks.
+ * Every active tween is stepped in one pass at the start of the tick, so the resulting changes
+ * reach players with the tracker updates sent at the end of the same tick.
+ * A bone runs at most one tween per property; starting another replaces it, continuing from the current value.
+ * Tweens are started by commands and stepped by the tick hook of {@link ModelService}, both on the server thread,
+ * so the active list is not synchronized.
+ */
+public class TweenService {
+
+    private final List<BoneTween> active = new ArrayList<>();
+    // The running tween of each property of a bone, indexed by Property ordinal.
+    private final Map<BoneController, BoneTween[]> byController = new IdentityHashMap<>();
+    private final Quaternionf rotationScratch = new Quaternionf();
+    private final Quaternionf targetScratch = new Quaternionf();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder steps = new LongAdder();
+
+    public enum Property {
+        ROTATE, OFFSET, SCALE, TINT;
+
+        private static final Property[] VALUES = values();
+
+        /**
+         * @return The property with the given name, ignoring case, or null if there is none.
+         * The names match the bone mechanisms that set the same values.
+         */
+        public static Property byName(String name) {
+            for (Property property : VALUES) {
+                if (property.name().equalsIgnoreCase(name)) {
+                    return property;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A parsed tween, ready to be started on any number of bones.
+     *
+     * @param target The target value: x, y, z, w for rotations, x, y, z for offsets and scales, and the RGB color for tints.
+     */
+    public record Spec(Property property, float[] target, int durationTicks, Easing easing) {
+
+        public static Spec rotate(Quaternionf rotation, int durationTicks, Easing easing) {
+            return new Spec(Property.ROTATE, new float[] {rotation.x, rotation.y, rotation.z, rotation.w}, durationTicks, easing);
+        }
+
+        public static Spec offset(Vector3f offset, int durationTicks, Easing easing) {
+            return new Spec(Property.OFFSET, new float[] {offset.x, offset.y, offset.z}, durationTicks, easing);
+        }
+
+        public static Spec scale(Vector3f scale, int durationTicks, Easing easing) {
+            return new Spec(Property.SCALE, new float[] {scale.x, scale.y, scale.z}, durationTicks, easing);
+        }
+
+        public static Spec tint(int color, int durationTicks, Easing easing) {
+            return new Spec(Property.TINT, new float[] {(color >> 16) & 0xFF, (color >> 8) & 0xFF, color & 0xFF}, durationTicks, easing);
+        }
+    }
+
+    /**
+     * Starts a tween on a bone, replacing any running tween of the same property.
+     * A tween with no duration applies its target immediately.
+     */
+    public void start(BoneController controller, Spec spec) {
+        cancel(controller, spec.property());
+        BoneTween tween = new BoneTween(controller, spec);
+        started.increment();
+        if (spec.durationTicks() <= 0) {
+            apply(tween, 1f);
+            completed.increment();
+            return;
+        }
+        capture(tween);
+        byController.computeIfAbsent(controller, k -> new BoneTween[Property.VALUES.length])[spec.property().ordinal()] = tween;
+        active.add(tween);
+    }
+
+    /**
+     * Stops the running tween of a property of a bone, leaving the bone where it currently is.
+     *
+     * @param property The property to stop, or null to stop every tween of the bone.
+     * @return Whether any tween was stopped.
+     */
+    public boolean cancel(BoneController controller, Property property) {
+        if (byController.isEmpty()) {
+            return false;
+        }
+        BoneTween[] slots = byController.get(controller);
+        if (slots == null) {
+            return false;
+        }
+        boolean cancelled = false;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null && (property == null || property.ordinal() == i)) {
+                // Removed from the active list on the next step.
+                slots[i].cancelled = true;
+                slots[i] = null;
+                cancelled = true;
+            }
+        }
+        if (property == null || isEmpty(slots)) {
+            byController.remove(controller);
+        }
+        return cancelled;
+    }
+
+    public boolean isEmpty() {
+        return active.isEmpty();
+    }
+
+    /**
+     * Advances every active tween by one tick.
+     */
+    public void tick() {
+        if (active.isEmpty()) {
+            return;
+        }
+        int kept = 0;
+        int size = active.size();
+        for (int i = 0; i < size; i++) {
+            BoneTween tween = active.get(i);
+            if (tween.cancelled) {
+                continue;
+            }
+            tween.elapsed++;
+            boolean done = tween.elapsed >= tween.duration;
+            apply(tween, done ? 1f : tween.easing.apply((float) tween.elapsed / tween.duration));
+            if (done) {
+                release(tween);
+                completed.increment();
+                continue;
+            }
+            active.set(kept++, tween);
+        }
+        steps.add(size);
+        active.subList(kept, size).clear();
+    }
+
+    private void capture(BoneTween tween) {
+        BoneController controller = tween.controller;
+        float[] from = tween.from;
+        switch (tween.property) {
+            case ROTATE -> {
+                Quaternionf rotation = controller.getRotation(rotationScratch);
+                from[0] = rotation.x;
+                from[1] = rotation.y;
+                from[2] = rotation.z;
+                from[3] = rotation.w;
+            }
+            case OFFSET -> copy(controller.getOffset(), from);
+            case SCALE -> copy(controller.getScale(), from);
+            case TINT -> {
+                int color = controller.getTint();
+                from[0] = (color >> 16) & 0xFF;
+                from[1] = (color >> 8) & 0xFF;
+                from[2] = color & 0xFF;
+            }
+        }
+    }
+
+    private static void copy(Vector3f vector, float[] into) {
+        into[0] = vector.x;
+        into[1] = vector.y;
+        into[2] = vector.z;
+    }
+
+    private void apply(BoneTween tween, float progress) {
+        float[] from = tween.from;
+        float[] to = tween.to;
+        BoneController controller = tween.controller;
+        switch (tween.property) {
+            case ROTATE -> {
+                Quaternionf rotation = rotationScratch.set(from[0], from[1], from[2], from[3]);
+                if (progress >= 1f) {
+                    rotation.set(to[0], to[1], to[2], to[3]);
+                } else {
+                    rotation.slerp(targetScratch.set(to[0], to[1], to[2], to[3]), progress);
+                }
+                controller.setRotation(rotation);
+            }
+            // A new vector per step, as the controller keeps the instance it is given.
+            case OFFSET -> controller.setOffset(lerp(from, to, progress));
+            case SCALE -> controller.setScale(lerp(from, to, progress));
+            case TINT -> controller.setTint(channel(from[0], to[0], progress) << 16
+                    | channel(from[1], to[1], progress) << 8
+                    | channel(from[2], to[2], progress));
+        }
+    }
+
+    private static Vector3f lerp(float[] from, float[] to, float progress) {
+        return new Vector3f(
+                from[0] + (to[0] - from[0]) * progress,
+                from[1] + (to[1] - from[1]) * progress,
+                from[2] + (to[2] - from[2]) * progress
+        );
+    }
+
+    private static int channel(float from, float to, float progress) {
+        // Overshooting easings would otherwise spill into the neighbouring channels.
+        return Math.max(0, Math.min(255, Math.round(from + (to - from) * progress)));
+    }
+
+    private void release(BoneTween tween) {
+        BoneTween[] slots = byController.get(tween.controller);
+        if (slots == null) {
+            return;
+        }
+        int index = tween.property.ordinal();
+        if (slots[index] == tween) {
+            slots[index] = null;
+            if (isEmpty(slots)) {
+                byController.remove(tween.controller);
+            }
+        }
+    }
+
+    private static boolean isEmpty(BoneTween[] slots) {
+        for (BoneTween slot : slots) {
+            if (slot != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void evictTracker(EntityTracker tracker) {
+        if (byController.isEmpty()) {
+            return;
+        }
+        byController.entrySet().removeIf(entry -> {
+            if (entry.getKey().getTracker() != tracker) {
+                return false;
+            }
+            cancelAll(entry.getValue());
+            return true;
+        });
+    }
+
+    public void evictEntities(Set<UUID> entityUUIDs) {
+        if (byController.isEmpty()) {
+            return;
+        }
+        byController.entrySet().removeIf(entry -> {
+            if (!entityUUIDs.contains(entry.getKey().getTracker().registry().uuid())) {
+                return false;
+            }
+            cancelAll(entry.getValue());
+            return true;
+        });
+    }
+
+    private static void cancelAll(BoneTween[] slots) {
+        for (BoneTween slot : slots) {
+            if (slot != null) {
+                slot.cancelled = true;
+            }
+        }
+    }
+
+    public void clear() {
+        active.clear();
+        byController.clear();
+    }
+
+    public MapTag getStatistics() {
+        MapTag map = new MapTag();
+        map.putObject("active", new ElementTag(active.size()));
+        map.putObject("started", new ElementTag(started.sum()));
+        map.putObject("completed", new ElementTag(completed.sum()));
+        map.putObject("steps", new ElementTag(steps.sum()));
+        return map;
+    }
+
+    private static final class BoneTween {
+        private final BoneController controller;
+        private final Property property;
+        private final float[] from = new float[4];
+        private final float[] to;
+        private final int duration;
+        private final Easing easing;
+        private int elapsed;
+        private boolean cancelled;
+
+        private BoneTween(BoneController controller, Spec spec) {
+            this.controller = controller;
+            this.property = spec.property();
+            this.to = spec.target();
+            this.duration = spec.durationTicks();
+            this.easing = spec.easing();
+        }
+    }
+}
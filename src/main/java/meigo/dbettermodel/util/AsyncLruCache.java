@@ -0,0 +1,146 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.util;
+
+import com.denizenscript.denizencore.objects.core.ElementTag;
+import com.denizenscript.denizencore.objects.core.MapTag;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of asynchronously loaded values.
+ * Values are evicted least-recently-used first once the cache is full, and expire after a fixed time.
+ * Concurrent requests for a key that is still loading share the same pending load instead of starting another one.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+public class AsyncLruCache<K, V> {
+
+    private final Map<K, Entry<V>> entries;
+    private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+    private volatile int maxSize;
+    private volatile long ttlMillis;
+
+    /**
+     * @param maxSize   The maximum number of cached values. 0 disables caching, but loads are still deduplicated.
+     * @param ttlMillis How long a value stays valid after it was loaded.
+     */
+    public AsyncLruCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > AsyncLruCache.this.maxSize;
+            }
+        };
+    }
+
+    public void configure(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the cached value for a key, or loads it if it is missing or expired.
+     * If the key is already being loaded, the pending load is returned instead.
+     *
+     * @param key    The key to look up.
+     * @param loader Starts loading the value for a key. Only called on a miss.
+     */
+    public CompletableFuture<V> get(K key, Function<K, CompletableFuture<V>> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<V> result = new CompletableFuture<>();
+        CompletableFuture<V> pending = loading.putIfAbsent(key, result);
+        if (pending != null) {
+            joined.increment();
+            return pending;
+        }
+        misses.increment();
+        CompletableFuture<V> load;
+        try {
+            load = loader.apply(key);
+        } catch (Throwable e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+        load.whenComplete((value, error) -> {
+            if (error == null && value != null) {
+                put(key, value);
+            }
+            loading.remove(key, result);
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    public V getIfPresent(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    public void put(K key, V value) {
+        if (maxSize <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public MapTag getStatistics() {
+        MapTag map = new MapTag();
+        map.putObject("size", new ElementTag(size()));
+        map.putObject("max_size", new ElementTag(maxSize));
+        map.putObject("hits", new ElementTag(hits.sum()));
+        map.putObject("misses", new ElementTag(misses.sum()));
+        map.putObject("joined_loads", new ElementTag(joined.sum()));
+        map.putObject("loading", new ElementTag(loading.size()));
+        return map;
+    }
+
+    private record Entry<V>(V value, long expiresAt) {}
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2025 Meigo™ Corporation
+ * SPDX-License-Identifier: MIT
+ */
+
+package meigo.dbettermodel.util;
+
+import com.denizenscript.denizencore.objects.ObjectTag;
+import com.denizenscript.denizencore.objects.core.ElementTag;
+import com.denizenscript.denizencore.objects.core.MapTag;
+import com.denizenscript.denizencore.tags.TagRunnable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An opt-in profiler for DBetterModel's commands, mechanisms and tags.
+ * Records call counts and latency histograms per section. While disabled, timing
+ * costs a single boolean check and nothing is recorded.
+ * Controlled by the 'options.profiler' option in config.yml and the /dbettermodel command.
+ */
+public class DBMProfiler {
+
+    public static final String COMMAND = "command";
+    public static final String MECHANISM = "mechanism";
+    public static final String MODEL_MECHANISM = "model_mechanism";
+    public static final String TAG = "tag";
+
+    private static final long[] BUCKET_BOUNDS_NANOS = {
+            1_000L, 4_000L, 16_000L, 64_000L, 256_000L, 1_000_000L, 4_000_000L, 16_000_000L
+    };
+    private static final String[] BUCKET_NAMES = {
+            "under_1us", "under_4us", "under_16us", "under_64us", "under_256us", "under_1ms", "under_4ms", "under_16ms", "over_16ms"
+    };
+
+    public static volatile boolean enabled;
+
+    private static final Map<String, Map<String, Section>> sections = new ConcurrentHashMap<>();
+
+    /**
+     * Starts timing a call.
+     *
+     * @return The start time to pass to {@link #record}, or 0 if the profiler is disabled.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records a call started with {@link #start()}. Does nothing if the profiler was disabled at the start.
+     *
+     * @param category  The kind of section, e.g. {@link #COMMAND}.
+     * @param name      The name of the section within its category.
+     * @param startNanos The value returned by {@link #start()}.
+     */
+    public static void record(String category, String name, long startNanos) {
+        if (startNanos == 0L) {
+            return;
+        }
+        long elapsed = System.nanoTime() - startNanos;
+        Map<String, Section> categorySections = sections.get(category);
+        if (categorySections == null) {
+            categorySections = sections.computeIfAbsent(category, k -> new ConcurrentHashMap<>());
+        }
+        Section section = categorySections.get(name);
+        if (section == null) {
+            section = categorySections.computeIfAbsent(name, k -> new Section());
+        }
+        section.record(elapsed);
+    }
+
+    /**
+     * Runs a command body, recording it under the {@link #COMMAND} category.
+     *
+     * @param name The command name, e.g. 'bmstate'.
+     * @param body The command's work.
+     */
+    public static void command(String name, Runnable body) {
+        long start = start();
+        try {
+            body.run();
+        } finally {
+            record(COMMAND, name, start);
+        }
+    }
+
+    /**
+     * Wraps a tag so each call is recorded under the {@link #TAG} category.
+     *
+     * @param objectType The prefix of the object the tag belongs to, e.g. 'bmbone'.
+     * @param name       The tag name.
+     * @param tag        The tag to wrap.
+     */
+    public static <T extends ObjectTag, R extends ObjectTag> TagRunnable.ObjectInterface<T, R> tag(String objectType, String name, TagRunnable.ObjectInterface<T, R> tag) {
+        String sectionName = objectType + "." + name;
+        return (attribute, object) -> {
+            long start = start();
+            try {
+                return tag.run(attribute, object);
+            } finally {
+                record(TAG, sectionName, start);
+            }
+        };
+    }
+
+    public static void reset() {
+        sections.clear();
+    }
+
+    public static List<String> getSummaryLines() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Section>> category : sections.entrySet()) {
+            for (Map.Entry<String, Section> section : category.getValue().entrySet()) {
+                Section stats = section.getValue();
+                long calls = stats.count.sum();
+                double averageMicros = calls == 0 ? 0 : stats.totalNanos.sum() / 1_000.0 / calls;
+                lines.add(String.format("%s.%s: %d calls, avg %.1fus, max %.1fus, total %.2fms",
+                        category.getKey(), section.getKey(), calls, averageMicros,
+                        stats.maxNanos.get() / 1_000.0, stats.totalNanos.sum() / 1_000_000.0));
+            }
+        }
+        Collections.sort(lines);
+        return lines;
+    }
+
+    public static MapTag toMapTag() {
+        MapTag result = new MapTag();
+        for (Map.Entry<String, Map<String, Section>> category : sections.entrySet()) {
+            MapTag categoryMap = new MapTag();
+            for (Map.Entry<String, Section> section : category.getValue().entrySet()) {
+                categoryMap.putObject(section.getKey(), section.getValue().toMapTag());
+            }
+            result.putObject(category.getKey(), categoryMap);
+        }
+        return result;
+    }
+
+    private static class Section {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+        private final LongAdder[] buckets = new LongAdder[BUCKET_NAMES.length];
+
+        private Section() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        private void record(long elapsedNanos) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_NANOS.length && elapsedNanos >= BUCKET_BOUNDS_NANOS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+        }
+
+        private MapTag toMapTag() {
+            long calls = count.sum();
+            long total = totalNanos.sum();
+            MapTag map = new MapTag();
+            map.putObject("count", new ElementTag(calls));
+            map.putObject("total_ms", new ElementTag(total / 1_000_000.0));
+            map.putObject("average_us", new ElementTag(calls == 0 ? 0 : total / 1_000.0 / calls));
+            map.putObject("max_us", new ElementTag(maxNanos.get() / 1_000.0));
+            MapTag histogram = new MapTag();
+            for (int i = 0; i < buckets.length; i++) {
+                histogram.putObject(BUCKET_NAMES[i], new ElementTag(buckets[i].sum()));
+            }
+            map.putObject("histogram", histogram);
+            return map;
+        }
+    }
+}